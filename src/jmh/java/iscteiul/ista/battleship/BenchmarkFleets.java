@@ -0,0 +1,110 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Fixed fleets and shot sequences shared by the benchmarks. The standard layout
+ * is a legal 11-ship fleet on a 10x10 board; larger boards get copies of it
+ * spread along the diagonal, 11 cells apart so that copies never touch.
+ */
+final class BenchmarkFleets {
+    private static final int TILE = 11;
+
+    private static final Object[][] LAYOUT = {
+            {"galeao", 0, 0, Compass.NORTH},
+            {"fragata", 0, 5, Compass.EAST},
+            {"nau", 4, 0, Compass.SOUTH},
+            {"nau", 2, 5, Compass.EAST},
+            {"caravela", 4, 3, Compass.EAST},
+            {"caravela", 6, 6, Compass.SOUTH},
+            {"caravela", 8, 0, Compass.EAST},
+            {"barca", 9, 9, Compass.NORTH},
+            {"barca", 4, 9, Compass.NORTH},
+            {"barca", 6, 3, Compass.NORTH},
+            {"barca", 9, 4, Compass.NORTH}
+    };
+
+    private BenchmarkFleets() {
+    }
+
+    /**
+     * @param boardSize Number of rows and columns of the board
+     * @param tiles     Number of copies of the standard layout
+     * @return the rules for a board with that many copies of the layout
+     */
+    static GameRules rules(int boardSize, int tiles) {
+        return new GameRules(boardSize, tiles * LAYOUT.length);
+    }
+
+    /**
+     * @return the number of copies of the layout that fit on the diagonal,
+     * capped at the given maximum
+     */
+    static int tilesFor(int boardSize, int maxTiles) {
+        return Math.max(1, Math.min(maxTiles, (boardSize + 1) / TILE));
+    }
+
+    /**
+     * @return the ships of the given number of copies of the layout, spread
+     * evenly along the board diagonal
+     */
+    static List<IShip> ships(int boardSize, int tiles) {
+        List<IShip> ships = new ArrayList<>();
+        int step = tiles == 1 ? 0 : (boardSize - TILE + 1) / (tiles - 1);
+        for (int t = 0; t < tiles; t++) {
+            int offset = t * step;
+            for (Object[] s : LAYOUT)
+                ships.add(Ship.buildShip((String) s[0], (Compass) s[3],
+                        new Position(offset + (Integer) s[1], offset + (Integer) s[2])));
+        }
+        return ships;
+    }
+
+    /**
+     * @return a fleet holding the given ships; fails if any of them is rejected
+     */
+    static Fleet fill(Fleet fleet, List<IShip> ships) {
+        for (IShip s : ships)
+            if (!fleet.addShip(s))
+                throw new IllegalStateException("Benchmark layout rejected " + s);
+        return fleet;
+    }
+
+    /**
+     * @return a shuffled sequence of shots, packed as coordinates: every cell of
+     * small boards, or the ship cells mixed with distinct random cells up to
+     * maxShots on large ones
+     */
+    static long[] shots(int boardSize, List<IShip> ships, int maxShots, long seed) {
+        Random random = new Random(seed);
+        long cells = (long) boardSize * boardSize;
+        long[] shots;
+        if (cells <= maxShots) {
+            shots = new long[(int) cells];
+            for (int i = 0; i < shots.length; i++)
+                shots[i] = Coordinate.pack(i / boardSize, i % boardSize);
+        } else {
+            Set<Long> chosen = new LinkedHashSet<>();
+            for (IShip s : ships)
+                for (IPosition p : s.getPositions())
+                    chosen.add(Coordinate.pack(p.getRow(), p.getColumn()));
+            while (chosen.size() < maxShots)
+                chosen.add(Coordinate.pack(random.nextInt(boardSize), random.nextInt(boardSize)));
+            shots = chosen.stream().mapToLong(Long::longValue).toArray();
+        }
+        for (int i = shots.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long tmp = shots[i];
+            shots[i] = shots[j];
+            shots[j] = tmp;
+        }
+        return shots;
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * DensityAttacker choosing a shot on a fresh board (firstShot) and playing
+ * whole games against generated standard fleets (playout, per game)
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DensityAttackerBenchmark {
+    private FleetGenerator generator;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = new FleetGenerator();
+        random = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public long firstShot() {
+        return new DensityAttacker(random).nextShot();
+    }
+
+    @Benchmark
+    public int playout() {
+        Game game = new Game(generator.generate(random));
+        DensityAttacker attacker = new DensityAttacker(random);
+        while (game.getRemainingShips() > 0) {
+            long shot = attacker.nextShot();
+            int row = Coordinate.rowOf(shot);
+            int column = Coordinate.columnOf(shot);
+            int result = game.fire(row, column);
+            attacker.update(row, column, result, result == IGame.SHOT_SUNK ? game.getLastSunkShip() : null);
+        }
+        return game.getShots().size();
+    }
+}
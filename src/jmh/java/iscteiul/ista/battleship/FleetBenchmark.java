@@ -0,0 +1,74 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Fleet.shipAt, Fleet.addShip and Ship.tooCloseTo, for the list-based Fleet and
+ * the BitboardFleet, on the standard board and on large configured boards
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FleetBenchmark {
+    private static final int LOOKUPS = 1024;
+
+    @Param({"10", "1000", "100000"})
+    public int boardSize;
+
+    @Param({"list", "bitboard"})
+    public String fleetKind;
+
+    private GameRules rules;
+    private List<IShip> ships;
+    private Fleet fleet;
+    private long[] lookups;
+    private IShip first;
+    private IShip last;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int tiles = BenchmarkFleets.tilesFor(boardSize, 16);
+        rules = BenchmarkFleets.rules(boardSize, tiles);
+        ships = BenchmarkFleets.ships(boardSize, tiles);
+        fleet = BenchmarkFleets.fill(newFleet(), ships);
+        lookups = BenchmarkFleets.shots(boardSize, ships, LOOKUPS, 7);
+        first = ships.get(0);
+        last = ships.get(ships.size() - 1);
+    }
+
+    private Fleet newFleet() {
+        return fleetKind.equals("bitboard") ? new BitboardFleet(rules) : new Fleet(rules);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int shipAt() {
+        int found = 0;
+        for (long cell : lookups)
+            if (fleet.shipAt(Coordinate.rowOf(cell), Coordinate.columnOf(cell)) != null)
+                found++;
+        return found;
+    }
+
+    /**
+     * Adds every ship of the layout to an empty fleet; the score is per fleet
+     */
+    @Benchmark
+    public Fleet addShip() {
+        return BenchmarkFleets.fill(newFleet(), ships);
+    }
+
+    @Benchmark
+    public boolean tooCloseTo() {
+        return first.tooCloseTo(last);
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * FleetGenerator producing standard fleets, one thread or all of them
+ * (run with -t max to generate on every core)
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FleetGeneratorBenchmark {
+    private FleetGenerator generator;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = new FleetGenerator();
+        random = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public BitboardFleet generate() {
+        return generator.generate(random);
+    }
+}
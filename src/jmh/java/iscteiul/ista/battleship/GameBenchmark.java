@@ -0,0 +1,98 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Game.fire and complete playouts on the standard board and on large configured
+ * boards. Run with "-prof gc" to get allocation rates; SampleTime gives the
+ * latency percentiles.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+    private static final int SHOTS = 4000;
+
+    @Param({"10", "1000", "100000"})
+    public int boardSize;
+
+    private GameRules rules;
+    private List<IShip> ships;
+    private long[] shots;
+    private Game[] games;
+    private Game midGame;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        int tiles = BenchmarkFleets.tilesFor(boardSize, 64);
+        rules = BenchmarkFleets.rules(boardSize, tiles);
+        ships = BenchmarkFleets.ships(boardSize, tiles);
+        shots = BenchmarkFleets.shots(boardSize, ships, SHOTS, 42);
+
+        midGame = new Game(BenchmarkFleets.fill(new BitboardFleet(rules), ships));
+        for (int i = 0; i < shots.length / 2; i++)
+            midGame.fire(Coordinate.rowOf(shots[i]), Coordinate.columnOf(shots[i]));
+    }
+
+    /**
+     * Small boards have fewer cells than SHOTS, so their shot sequence is fired
+     * on as many fresh games as needed to reach SHOTS shots
+     */
+    @Setup(Level.Invocation)
+    public void setUpGames() {
+        games = new Game[SHOTS / shots.length];
+        for (int i = 0; i < games.length; i++) {
+            List<IShip> fresh = BenchmarkFleets.ships(boardSize, BenchmarkFleets.tilesFor(boardSize, 64));
+            games[i] = new Game(BenchmarkFleets.fill(new BitboardFleet(rules), fresh));
+        }
+    }
+
+    /**
+     * Fires SHOTS shots on fresh games; the score is per shot
+     */
+    @Benchmark
+    @OperationsPerInvocation(SHOTS)
+    public int fire() {
+        int outcomes = 0;
+        for (Game game : games)
+            for (long shot : shots)
+                outcomes += game.fire(Coordinate.rowOf(shot), Coordinate.columnOf(shot));
+        return outcomes;
+    }
+
+    /**
+     * Builds a fleet and its game and fires the shot sequence until every ship
+     * is sunk (or the sequence ends); the score is per game
+     */
+    @Benchmark
+    public int playout() {
+        List<IShip> fresh = BenchmarkFleets.ships(boardSize, BenchmarkFleets.tilesFor(boardSize, 64));
+        Game g = new Game(BenchmarkFleets.fill(new BitboardFleet(rules), fresh));
+        int fired = 0;
+        while (fired < shots.length && g.getRemainingShips() > 0) {
+            long shot = shots[fired++];
+            g.fire(Coordinate.rowOf(shot), Coordinate.columnOf(shot));
+        }
+        return fired;
+    }
+
+    /**
+     * Forks a game halfway through the shot sequence and fires one more shot on
+     * the fork, which copies the fleet and then the shot history it shared
+     */
+    @Benchmark
+    public int forkAndFire() {
+        Game fork = midGame.fork();
+        long shot = shots[shots.length / 2];
+        return fork.fire(Coordinate.rowOf(shot), Coordinate.columnOf(shot));
+    }
+}
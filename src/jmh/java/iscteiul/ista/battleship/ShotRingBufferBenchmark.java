@@ -0,0 +1,68 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Shots published into a ShotRingBuffer by two producer threads, handled by
+ * consumers that only count them, and by consumers that fire them at the games
+ * of a GameRegistry. Run with "-prof gc" to check that publishing allocates
+ * nothing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(2)
+@State(Scope.Benchmark)
+public class ShotRingBufferBenchmark {
+    private static final int GAMES = 1024;
+
+    @Param({"count", "fire"})
+    public String handler;
+
+    @Param({"2"})
+    public int consumers;
+
+    private ShotRingBuffer ring;
+    private LongAdder handled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        handled = new LongAdder();
+        if (handler.equals("count")) {
+            ring = new ShotRingBuffer(1 << 16, consumers, (gameId, row, column) -> handled.increment());
+        } else {
+            GameRegistry registry = new GameRegistry();
+            for (int i = 0; i < GAMES; i++)
+                registry.create(new FleetGenerator().generate(FleetGenerator.randomFor(42, i)));
+            ring = ShotRingBuffer.firingAt(registry, 1 << 16, consumers);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ring.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Producer {
+        long shot;
+    }
+
+    /**
+     * Publishes one shot; games and cells cycle, so most shots at the games
+     * of the registry are repeated once the first ones are over
+     */
+    @Benchmark
+    public long publish(Producer producer) {
+        long n = producer.shot++;
+        return ring.publish(1 + n % GAMES, (int) (n / GAMES) % 10, (int) (n / (10 * GAMES)) % 10);
+    }
+}
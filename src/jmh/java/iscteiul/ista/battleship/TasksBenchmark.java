@@ -0,0 +1,46 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Tasks.buildFleet reading the standard fleet from a script, through a Scanner
+ * and through a CommandTokenizer
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TasksBenchmark {
+    private byte[] script;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder sb = new StringBuilder();
+        for (IShip s : BenchmarkFleets.ships(IFleet.BOARD_SIZE, 1))
+            sb.append(s.getCategory().toLowerCase()).append(' ')
+                    .append(s.getPosition().getRow()).append(' ')
+                    .append(s.getPosition().getColumn()).append(' ')
+                    .append(s.getBearing()).append('\n');
+        script = sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Fleet buildFleet() {
+        return Tasks.buildFleet(new Scanner(new ByteArrayInputStream(script)));
+    }
+
+    @Benchmark
+    public Fleet buildFleetTokenizer() {
+        return Tasks.buildFleet(new CommandTokenizer(new ByteArrayInputStream(script)));
+    }
+}
@@ -1,5 +1,9 @@
 package iscteiul.ista;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
+import iscteiul.ista.battleship.BatchRunner;
 import iscteiul.ista.battleship.Fleet;
 import iscteiul.ista.battleship.Tasks;
 
@@ -10,8 +14,25 @@ import iscteiul.ista.battleship.Tasks;
  */
 public class App
 {
-    public static void main( String[] args )
+    private static final String LOG_CONFIGURATION = "log4j2.configurationFile";
+
+    /**
+     * Runs one interactive game on stdin or, with the arguments
+     * "batch &lt;scripts directory&gt; &lt;results file&gt; [threads]", replays every
+     * script of a directory (see BatchRunner). Batch games log asynchronously
+     * (log4j2-batch.xml) unless another logging configuration is given
+     */
+    public static void main( String[] args ) throws IOException
     {
+        if (args.length >= 3 && args[0].equals("batch")) {
+            if (System.getProperty(LOG_CONFIGURATION) == null)
+                System.setProperty(LOG_CONFIGURATION, "log4j2-batch.xml");
+            BatchRunner runner = (args.length > 3) ? new BatchRunner(Integer.parseInt(args[3])) : new BatchRunner();
+            int failures = runner.run(Path.of(args[1]), Path.of(args[2]));
+            if (failures > 0)
+                System.exit(1);
+            return;
+        }
 
         System.out.printf("\n***  Battleship Game ***\n");
 
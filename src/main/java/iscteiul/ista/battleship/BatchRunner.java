@@ -0,0 +1,194 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.util.Unbox;
+
+/**
+ * Replays a directory of command scripts, each one as an independent game of
+ * Tasks.taskD, on a pool of worker threads. The outcome of every game is written
+ * to a CSV file, one line per script in file name order:
+ * <pre>
+ * script,hits,invalid,repeated,sunk,remaining
+ * </pre>
+ * Scripts that fail (malformed input, or no fleet built) get a line with the
+ * script name followed by ",ERROR," and the reason. Names and reasons are
+ * quoted as CSV fields when needed.
+ * <p>
+ * Games run headless: what the scripts print (estado, mapa, ver) is discarded,
+ * so the output of games played at the same time is never interleaved.
+ */
+public class BatchRunner {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    public static final String HEADER = "script,hits,invalid,repeated,sunk,remaining";
+
+    /**
+     * Scripts are small, so they are read in smaller blocks than interactive input
+     */
+    private static final int SCRIPT_BUFFER_SIZE = 1 << 13;
+
+    /**
+     * Scripts submitted ahead of the one whose line is written next, per thread
+     */
+    private static final int WINDOW_PER_THREAD = 4;
+
+    private final int threads;
+
+    /**
+     * The outcome of a script: the counters of the game it played, or why it
+     * failed. The game itself is not kept, so that finished games can be
+     * collected while the batch goes on
+     *
+     * @param name      The file name of the script
+     * @param hits      Number of shots that hit a ship
+     * @param invalid   Number of shots outside the board
+     * @param repeated  Number of shots at cells already fired at
+     * @param sunk      Number of ships sunk
+     * @param remaining Number of ships still floating
+     * @param error     Why the script failed, or null
+     */
+    record Outcome(String name, int hits, int invalid, int repeated, int sunk, int remaining, String error) {
+
+        static Outcome of(String name, IGame game) {
+            return new Outcome(name, game.getHits(), game.getInvalidShots(), game.getRepeatedShots(),
+                    game.getSunkShips(), game.getRemainingShips(), null);
+        }
+
+        static Outcome failure(String name, String error) {
+            return new Outcome(name, 0, 0, 0, 0, 0, error);
+        }
+
+        boolean failed() {
+            return error != null;
+        }
+
+        /**
+         * @return the CSV line of the outcome
+         */
+        String toCsv() {
+            if (failed())
+                return csvField(name) + ",ERROR," + csvField(error);
+            return csvField(name) + "," + hits + "," + invalid + "," + repeated + "," + sunk + "," + remaining;
+        }
+    }
+
+    public BatchRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads Number of games played at the same time
+     */
+    public BatchRunner(int threads) {
+        if (threads <= 0)
+            throw new IllegalArgumentException("ERROR! invalid number of threads " + threads);
+
+        this.threads = threads;
+    }
+
+    /**
+     * Plays every regular file of a directory as a game script. Only a few
+     * scripts per thread are submitted ahead of the line written next, so
+     * memory does not grow with the number of scripts
+     *
+     * @param scripts The directory of scripts
+     * @param output  The CSV file to write the results to
+     * @return the number of scripts that failed
+     * @throws IOException if the directory cannot be listed or the results cannot
+     *                     be written
+     */
+    public int run(Path scripts, Path output) throws IOException {
+        List<Path> files;
+        try (Stream<Path> entries = Files.list(scripts)) {
+            files = entries.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            Deque<Future<Outcome>> window = new ArrayDeque<>();
+            Iterator<Path> pending = files.iterator();
+            while (window.size() < threads * WINDOW_PER_THREAD && pending.hasNext())
+                window.add(submit(pool, pending.next()));
+
+            int failures = 0;
+            try (BufferedWriter out = Files.newBufferedWriter(output)) {
+                out.write(HEADER);
+                out.newLine();
+                while (!window.isEmpty()) {
+                    Outcome outcome = window.poll().get();
+                    if (pending.hasNext())
+                        window.add(submit(pool, pending.next()));
+                    if (outcome.failed())
+                        failures++;
+                    out.write(outcome.toCsv());
+                    out.newLine();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Batch interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause());
+            }
+            LOGGER.info("{} jogos, {} com erros", Unbox.box(files.size()), Unbox.box(failures));
+            return failures;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Future<Outcome> submit(ExecutorService pool, Path script) {
+        return pool.submit(() -> play(script));
+    }
+
+    /**
+     * @param script A command script
+     * @return the outcome of the game the script plays
+     */
+    static Outcome play(Path script) {
+        String name = script.getFileName().toString();
+        try (InputStream in = Files.newInputStream(script);
+             PrintStream discard = new PrintStream(OutputStream.nullOutputStream())) {
+            IGame game = Tasks.taskD(new CommandTokenizer(in, SCRIPT_BUFFER_SIZE), discard);
+            if (game == null)
+                return Outcome.failure(name, "no fleet");
+            return Outcome.of(name, game);
+        } catch (IOException | RuntimeException e) {
+            return Outcome.failure(name, String.valueOf(e));
+        }
+    }
+
+    /**
+     * @return the value as a CSV field, quoted (with quotes doubled) if it
+     * holds a comma, a quote or a line break
+     */
+    static String csvField(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r')
+                return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * A fleet that keeps a cell-indexed occupancy map of the board. Each occupied
+ * cell is marked and holds the index of the ship that occupies it, so that
+ * finding the ship at a given position does not require going through every ship
+ * of the fleet.
+ * <p>
+ * The fleet also keeps a mask of forbidden cells: the occupied cells plus their
+ * 8-neighbour halo. A new ship respects the no-touching rule if none of its cells
+ * is forbidden, so checking a placement costs one lookup per cell of the new
+ * ship, whatever the number of ships already in the fleet.
+ * <p>
+ * Both maps are cell grids (see CellGrid), dense on small boards and sparse on
+ * large ones. Copies of the fleet share them until either fleet adds a ship.
+ */
+public class BitboardFleet extends Fleet {
+    private CellGrid occupied;
+    private CellGrid forbidden;
+    private boolean sharedGrids;
+
+    public BitboardFleet() {
+        this(GameRules.STANDARD);
+    }
+
+    /**
+     * @param rules The board size and fleet size limit of this fleet
+     */
+    public BitboardFleet(GameRules rules) {
+        super(rules);
+        occupied = CellGrid.create(rules.getBoardSize());
+        forbidden = CellGrid.create(rules.getBoardSize());
+        sharedGrids = false;
+    }
+
+    /**
+     * @param other The fleet to copy; both fleets share the maps until one of
+     *              them changes
+     */
+    protected BitboardFleet(BitboardFleet other) {
+        super(other);
+        occupied = other.occupied;
+        forbidden = other.forbidden;
+        sharedGrids = true;
+        other.sharedGrids = true;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#copy()
+     */
+    @Override
+    public BitboardFleet copy() {
+        return new BitboardFleet(this);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.Fleet#addShip(battleship.IShip)
+     */
+    @Override
+    public boolean addShip(IShip s) {
+        boolean result = super.addShip(s);
+        if (result) {
+            if (sharedGrids) {
+                occupied = occupied.copy();
+                forbidden = forbidden.copy();
+                sharedGrids = false;
+            }
+            int index = getShips().size() - 1;
+            for (IPosition pos : s.getPositions())
+                occupied.put(pos.getRow(), pos.getColumn(), index);
+            markForbidden(s);
+        }
+        return result;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.Fleet#colisionRisk(battleship.IShip)
+     */
+    @Override
+    protected boolean colisionRisk(IShip s) {
+        for (IPosition pos : s.getPositions())
+            if (isForbidden(pos.getRow(), pos.getColumn()))
+                return true;
+        return false;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#shipAt(battleship.IPosition)
+     */
+    @Override
+    public IShip shipAt(IPosition pos) {
+        return shipAt(pos.getRow(), pos.getColumn());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#shipAt(int, int)
+     */
+    @Override
+    public IShip shipAt(int row, int column) {
+        if (!getRules().isInside(row, column) || !occupied.contains(row, column))
+            return null;
+        return getShips().get(occupied.get(row, column));
+    }
+
+    /**
+     * @param row    Row of the cell
+     * @param column Column of the cell
+     * @return true if no ship may have a position at that cell, because it is
+     * occupied or touches an occupied cell
+     */
+    public boolean isForbidden(int row, int column) {
+        return getRules().isInside(row, column) && forbidden.contains(row, column);
+    }
+
+    @Override
+    long footprint() {
+        return super.footprint() + Footprint.REFERENCE * 2 + occupied.footprint() + forbidden.footprint();
+    }
+
+    /**
+     * Marks the cells of a ship and the halo around them as forbidden. Ships
+     * built from a shape take the halo from it; for other ships every
+     * 8-neighbour of every position is marked
+     */
+    private void markForbidden(IShip s) {
+        ShipShape shape = (s instanceof Ship) ? ((Ship) s).getShape() : null;
+        if (shape != null) {
+            int row = s.getPosition().getRow();
+            int column = s.getPosition().getColumn();
+            for (int i = 0; i < shape.getSize(); i++)
+                markForbidden(row + shape.getRowOffset(i), column + shape.getColumnOffset(i));
+            for (int i = 0; i < shape.getHaloSize(); i++)
+                markForbidden(row + shape.getHaloRowOffset(i), column + shape.getHaloColumnOffset(i));
+        } else {
+            for (IPosition pos : s.getPositions())
+                for (int dr = -1; dr <= 1; dr++)
+                    for (int dc = -1; dc <= 1; dc++)
+                        markForbidden(pos.getRow() + dr, pos.getColumn() + dc);
+        }
+    }
+
+    private void markForbidden(int row, int column) {
+        if (getRules().isInside(row, column))
+            forbidden.set(row, column);
+    }
+
+}
@@ -0,0 +1,253 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Draws boards as text, one character per cell and one line per row, with
+ * water as '.' and marked cells with their marker. A board is composed with
+ * begin() and mark() and then written with render().
+ * <p>
+ * Boards of up to FRAME_LIMIT characters are composed into a reusable frame,
+ * which is written with a single call; only the marked cells are reset between
+ * boards. Larger boards, up to MAX_BOARD_SIZE rows, are streamed row by row
+ * through a fixed size buffer.
+ * <p>
+ * In diff mode, meant for terminals watching a live game, the first render
+ * clears the screen and draws the whole board, and the next ones only move the
+ * cursor (with ANSI escape codes) to the cells that changed since and redraw
+ * them. Diff mode needs the frame, so it is only available on boards that fit it.
+ */
+public final class BoardRenderer {
+    public static final int FRAME_LIMIT = 1 << 24;
+    public static final int MAX_BOARD_SIZE = 1 << 27;
+
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final byte WATER = '.';
+    private static final byte[] CLEAR_SCREEN = {27, '[', 'H', 27, '[', '2', 'J'};
+
+    private final int size;
+    private final OutputStream out;
+    private final boolean diff;
+
+    // boards that fit the frame
+    private final byte[] frame;
+    private int[] marked;
+    private int markedCount;
+
+    // diff mode: the board as written so far, and its marked cells
+    private byte[] shown;
+    private int[] shownMarked;
+
+    // larger boards: marks as (cell index << 8 | marker), and the output buffer
+    private long[] marks;
+    private byte[] chunk;
+    private int chunkLength;
+
+    /**
+     * @param boardSize Number of rows and columns of the board
+     * @param out       Where boards are written to
+     * @param diff      true to write only the cells that changed since the
+     *                  previous render
+     */
+    public BoardRenderer(int boardSize, OutputStream out, boolean diff) {
+        this(boardSize, out, diff, FRAME_LIMIT);
+    }
+
+    /**
+     * @param frameLimit Largest board, in characters, composed into a frame
+     */
+    BoardRenderer(int boardSize, OutputStream out, boolean diff, int frameLimit) {
+        assert boardSize > 0 && out != null;
+
+        if (boardSize > MAX_BOARD_SIZE)
+            throw new IllegalArgumentException("ERROR! board too large to render " + boardSize);
+        long length = (long) boardSize * (boardSize + 1);
+        if (diff && length > frameLimit)
+            throw new IllegalArgumentException("ERROR! board too large for diff rendering " + boardSize);
+
+        this.size = boardSize;
+        this.out = out;
+        this.diff = diff;
+        frame = (length <= frameLimit) ? new byte[(int) length] : null;
+        if (frame != null) {
+            Arrays.fill(frame, WATER);
+            for (int row = 0; row < size; row++)
+                frame[row * (size + 1) + size] = '\n';
+            marked = new int[16];
+        } else {
+            marks = new long[16];
+        }
+        chunk = (frame == null || diff) ? new byte[frame == null ? CHUNK_SIZE : 256] : null;
+        markedCount = 0;
+    }
+
+    /**
+     * Starts a new board, with no cells marked
+     */
+    public void begin() {
+        if (frame != null)
+            for (int i = 0; i < markedCount; i++)
+                frame[marked[i]] = WATER;
+        markedCount = 0;
+    }
+
+    /**
+     * Marks a cell of the current board
+     *
+     * @param row    Row of the cell
+     * @param column Column of the cell
+     * @param marker ASCII character to draw the cell with
+     */
+    public void mark(int row, int column, char marker) {
+        assert row >= 0 && row < size && column >= 0 && column < size;
+        assert marker > ' ' && marker < 128;
+
+        if (frame != null) {
+            if (markedCount == marked.length)
+                marked = Arrays.copyOf(marked, marked.length * 2);
+            int offset = row * (size + 1) + column;
+            marked[markedCount++] = offset;
+            frame[offset] = (byte) marker;
+        } else {
+            if (markedCount == marks.length)
+                marks = Arrays.copyOf(marks, marks.length * 2);
+            marks[markedCount++] = ((long) row * size + column) << 8 | marker;
+        }
+    }
+
+    /**
+     * Writes the current board
+     */
+    public void render() {
+        try {
+            if (frame == null)
+                stream();
+            else if (!diff)
+                out.write(frame, 0, frame.length);
+            else
+                renderChanges();
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void renderChanges() throws IOException {
+        chunkLength = 0;
+        if (shown == null) {
+            shown = frame.clone();
+            append(CLEAR_SCREEN, CLEAR_SCREEN.length);
+            append(frame, frame.length);
+        } else {
+            for (int offset : shownMarked)
+                redraw(offset);
+            for (int i = 0; i < markedCount; i++)
+                redraw(marked[i]);
+            moveTo(size, 0);
+        }
+        shownMarked = Arrays.copyOf(marked, markedCount);
+        out.write(chunk, 0, chunkLength);
+    }
+
+    /**
+     * Draws a cell again if it changed since it was last written
+     */
+    private void redraw(int offset) {
+        if (shown[offset] == frame[offset])
+            return;
+        shown[offset] = frame[offset];
+        moveTo(offset / (size + 1), offset % (size + 1));
+        append(frame[offset]);
+    }
+
+    /**
+     * Appends the ANSI code that moves the cursor to a cell
+     */
+    private void moveTo(int row, int column) {
+        append((byte) 27);
+        append((byte) '[');
+        appendInt(row + 1);
+        append((byte) ';');
+        appendInt(column + 1);
+        append((byte) 'H');
+    }
+
+    /**
+     * Writes a board that does not fit the frame row by row, in chunks
+     */
+    private void stream() throws IOException {
+        Arrays.sort(marks, 0, markedCount);
+        chunkLength = 0;
+        int next = 0;
+        for (int row = 0; row < size; row++) {
+            int column = 0;
+            for (; next < markedCount && (marks[next] >>> 8) / size == row; next++) {
+                int c = (int) ((marks[next] >>> 8) % size);
+                if (c < column)
+                    continue;
+                appendWater(c - column);
+                append((byte) marks[next]);
+                column = c + 1;
+            }
+            appendWater(size - column);
+            append((byte) '\n');
+        }
+        out.write(chunk, 0, chunkLength);
+    }
+
+    private void appendWater(int n) throws IOException {
+        while (n > 0) {
+            if (chunkLength == chunk.length) {
+                out.write(chunk, 0, chunkLength);
+                chunkLength = 0;
+            }
+            int k = Math.min(n, chunk.length - chunkLength);
+            Arrays.fill(chunk, chunkLength, chunkLength + k, WATER);
+            chunkLength += k;
+            n -= k;
+        }
+    }
+
+    /**
+     * Appends a byte to the output buffer; when streaming, a full buffer is
+     * written out, otherwise it grows
+     */
+    private void append(byte b) {
+        if (chunkLength == chunk.length) {
+            if (frame == null) {
+                try {
+                    out.write(chunk, 0, chunkLength);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                chunkLength = 0;
+            } else {
+                chunk = Arrays.copyOf(chunk, chunk.length * 2);
+            }
+        }
+        chunk[chunkLength++] = b;
+    }
+
+    private void append(byte[] bytes, int length) {
+        if (chunkLength + length > chunk.length)
+            chunk = Arrays.copyOf(chunk, Math.max(chunk.length * 2, chunkLength + length));
+        System.arraycopy(bytes, 0, chunk, chunkLength, length);
+        chunkLength += length;
+    }
+
+    private void appendInt(int value) {
+        int digits = 1;
+        for (int v = value; v >= 10; v /= 10)
+            digits++;
+        for (int i = 0; i < digits; i++)
+            append((byte) '0');
+        for (int i = 1, v = value; i <= digits; i++, v /= 10)
+            chunk[chunkLength - i] = (byte) ('0' + v % 10);
+    }
+}
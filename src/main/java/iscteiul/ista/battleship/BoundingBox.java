@@ -0,0 +1,59 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * The smallest rectangle of the board holding every position of a ship. Ships
+ * never change their geometry, so the box is computed once and shared.
+ */
+public final class BoundingBox {
+    private final int top;
+    private final int bottom;
+    private final int left;
+    private final int right;
+
+    /**
+     * @param top    the topmost row
+     * @param bottom the bottommost row
+     * @param left   the leftmost column
+     * @param right  the rightmost column
+     */
+    public BoundingBox(int top, int bottom, int left, int right) {
+        assert top <= bottom && left <= right;
+
+        this.top = top;
+        this.bottom = bottom;
+        this.left = left;
+        this.right = right;
+    }
+
+    public int getTop() {
+        return top;
+    }
+
+    public int getBottom() {
+        return bottom;
+    }
+
+    public int getLeft() {
+        return left;
+    }
+
+    public int getRight() {
+        return right;
+    }
+
+    /**
+     * @param boardSize Number of rows and columns of the board
+     * @return true if the whole box lies inside the board
+     */
+    public boolean isInside(int boardSize) {
+        return top >= 0 && bottom <= boardSize - 1 && left >= 0 && right <= boardSize - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + top + ".." + bottom + " x " + left + ".." + right + "]";
+    }
+}
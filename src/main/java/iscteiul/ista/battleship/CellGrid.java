@@ -0,0 +1,65 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * A set of marked board cells, each of which may also hold an int value. Small
+ * boards use flat arrays (one bit per cell, plus one int per cell once values
+ * are stored); large boards use chunks that are only allocated when some cell in
+ * them is marked, so memory grows with the marked cells and not with the board
+ * area.
+ * <p>
+ * Callers are expected to pass cells inside the board.
+ */
+public abstract class CellGrid {
+    /**
+     * Boards with up to this number of cells are stored densely
+     */
+    static final long DENSE_LIMIT = 1L << 16;
+
+    /**
+     * @param boardSize Number of rows and columns of the board
+     * @return an empty grid for a board of that size
+     */
+    public static CellGrid create(int boardSize) {
+        if ((long) boardSize * boardSize <= DENSE_LIMIT)
+            return new DenseCellGrid(boardSize);
+        return new ChunkedCellGrid();
+    }
+
+    /**
+     * @return true if the cell is marked
+     */
+    public abstract boolean contains(int row, int column);
+
+    /**
+     * Marks the cell, keeping any value it already holds
+     */
+    public abstract void set(int row, int column);
+
+    /**
+     * @return the value held by the cell, or 0 if none was put there
+     */
+    public abstract int get(int row, int column);
+
+    /**
+     * Marks the cell and makes it hold the given value
+     */
+    public abstract void put(int row, int column, int value);
+
+    /**
+     * Unmarks the cell and drops its value
+     */
+    public abstract void remove(int row, int column);
+
+    /**
+     * @return an independent copy of the grid
+     */
+    public abstract CellGrid copy();
+
+    /**
+     * @return an estimate of the heap taken by the grid, in bytes
+     */
+    abstract long footprint();
+}
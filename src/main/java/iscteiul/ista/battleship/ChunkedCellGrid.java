@@ -0,0 +1,165 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * Sparse cell grid: the board is split in 8x8 chunks (one bit word each, plus 64
+ * ints once values are stored) and only chunks holding marked cells exist. Chunks
+ * are found through an open-addressing table keyed by the chunk coordinates, so
+ * lookups do not box keys.
+ */
+final class ChunkedCellGrid extends CellGrid {
+    private static final int CHUNK_SHIFT = 3;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final class Chunk {
+        private long bits;
+        private int[] values;
+    }
+
+    private long[] keys;
+    private Chunk[] chunks;
+    private int count;
+
+    ChunkedCellGrid() {
+        keys = new long[INITIAL_CAPACITY];
+        chunks = new Chunk[INITIAL_CAPACITY];
+        count = 0;
+    }
+
+    @Override
+    long footprint() {
+        long bytes = Footprint.object(2 * Footprint.REFERENCE + 4) + Footprint.array(keys.length, Long.BYTES)
+                + Footprint.array(chunks.length, Footprint.REFERENCE);
+        for (Chunk chunk : chunks)
+            if (chunk != null)
+                bytes += Footprint.object(Long.BYTES + Footprint.REFERENCE)
+                        + (chunk.values == null ? 0 : Footprint.array(chunk.values.length, Integer.BYTES));
+        return bytes;
+    }
+
+    @Override
+    public boolean contains(int row, int column) {
+        Chunk chunk = find(row, column);
+        return chunk != null && (chunk.bits & bitOf(row, column)) != 0;
+    }
+
+    @Override
+    public void set(int row, int column) {
+        findOrCreate(row, column).bits |= bitOf(row, column);
+    }
+
+    @Override
+    public int get(int row, int column) {
+        Chunk chunk = find(row, column);
+        if (chunk == null || chunk.values == null)
+            return 0;
+        return chunk.values[offsetOf(row, column)];
+    }
+
+    @Override
+    public void put(int row, int column, int value) {
+        Chunk chunk = findOrCreate(row, column);
+        if (chunk.values == null)
+            chunk.values = new int[1 << (2 * CHUNK_SHIFT)];
+        chunk.bits |= bitOf(row, column);
+        chunk.values[offsetOf(row, column)] = value;
+    }
+
+    @Override
+    public void remove(int row, int column) {
+        Chunk chunk = find(row, column);
+        if (chunk != null) {
+            chunk.bits &= ~bitOf(row, column);
+            if (chunk.values != null)
+                chunk.values[offsetOf(row, column)] = 0;
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.CellGrid#copy()
+     */
+    @Override
+    public CellGrid copy() {
+        ChunkedCellGrid copy = new ChunkedCellGrid();
+        copy.keys = keys.clone();
+        copy.chunks = new Chunk[chunks.length];
+        for (int i = 0; i < chunks.length; i++)
+            if (chunks[i] != null) {
+                Chunk chunk = new Chunk();
+                chunk.bits = chunks[i].bits;
+                chunk.values = (chunks[i].values == null) ? null : chunks[i].values.clone();
+                copy.chunks[i] = chunk;
+            }
+        copy.count = count;
+        return copy;
+    }
+
+    /**
+     * @return the number of chunks allocated so far
+     */
+    int chunkCount() {
+        return count;
+    }
+
+    private static long keyOf(int row, int column) {
+        return ((long) (row >>> CHUNK_SHIFT) << 32) | (column >>> CHUNK_SHIFT);
+    }
+
+    private static int offsetOf(int row, int column) {
+        return ((row & CHUNK_MASK) << CHUNK_SHIFT) | (column & CHUNK_MASK);
+    }
+
+    private static long bitOf(int row, int column) {
+        return 1L << offsetOf(row, column);
+    }
+
+    private int slotOf(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (keys.length - 1);
+    }
+
+    private Chunk find(int row, int column) {
+        long key = keyOf(row, column);
+        for (int slot = slotOf(key); chunks[slot] != null; slot = (slot + 1) & (keys.length - 1))
+            if (keys[slot] == key)
+                return chunks[slot];
+        return null;
+    }
+
+    private Chunk findOrCreate(int row, int column) {
+        long key = keyOf(row, column);
+        int slot = slotOf(key);
+        while (chunks[slot] != null) {
+            if (keys[slot] == key)
+                return chunks[slot];
+            slot = (slot + 1) & (keys.length - 1);
+        }
+
+        Chunk chunk = new Chunk();
+        keys[slot] = key;
+        chunks[slot] = chunk;
+        if (++count * 2 > keys.length)
+            grow();
+        return chunk;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        Chunk[] oldChunks = chunks;
+        keys = new long[oldKeys.length * 2];
+        chunks = new Chunk[oldChunks.length * 2];
+        for (int i = 0; i < oldKeys.length; i++)
+            if (oldChunks[i] != null) {
+                int slot = slotOf(oldKeys[i]);
+                while (chunks[slot] != null)
+                    slot = (slot + 1) & (keys.length - 1);
+                keys[slot] = oldKeys[i];
+                chunks[slot] = oldChunks[i];
+            }
+    }
+}
@@ -0,0 +1,278 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * A buffered, byte-level reader of the whitespace separated tokens of a command
+ * script (see Tasks). Unlike java.util.Scanner it does not match a regular
+ * expression per token: bytes are read in large blocks, each token is copied
+ * once into a reusable buffer, integers are parsed straight from its bytes and
+ * words are compared against the expected commands without building a String.
+ * <p>
+ * Any byte up to the space character is a separator. Commands and ship kinds are
+ * ASCII; other tokens are decoded as UTF-8 only when token() is called.
+ */
+public final class CommandTokenizer implements ICommandSource, Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int TOKEN_SIZE = 32;
+
+    private final InputStream in;
+    private final ReadableByteChannel channel;
+    private final byte[] buffer;
+    private final ByteBuffer window;
+    private int position;
+    private int limit;
+    private boolean eof;
+
+    private byte[] token;
+    private int tokenLength;
+
+    /**
+     * @param in The stream to read commands from
+     */
+    public CommandTokenizer(InputStream in) {
+        this(in, BUFFER_SIZE);
+    }
+
+    /**
+     * @param in         The stream to read commands from
+     * @param bufferSize Number of bytes read at a time; small scripts need
+     *                   smaller buffers
+     */
+    public CommandTokenizer(InputStream in, int bufferSize) {
+        this(in, null, bufferSize);
+    }
+
+    /**
+     * @param channel The (blocking) channel to read commands from
+     */
+    public CommandTokenizer(ReadableByteChannel channel) {
+        this(null, channel, BUFFER_SIZE);
+    }
+
+    private CommandTokenizer(InputStream in, ReadableByteChannel channel, int bufferSize) {
+        assert in != null || channel != null;
+        assert bufferSize > 0;
+
+        this.in = in;
+        this.channel = channel;
+        buffer = new byte[bufferSize];
+        window = (channel == null) ? null : ByteBuffer.wrap(buffer);
+        position = 0;
+        limit = 0;
+        eof = false;
+        token = new byte[TOKEN_SIZE];
+        tokenLength = 0;
+    }
+
+    /**
+     * @return true if there is another token to read
+     */
+    public boolean hasNext() {
+        return skipSeparators();
+    }
+
+    /**
+     * Reads the next token; it stays available through tokenIs, tokenChar and
+     * token until the next one is read
+     *
+     * @return true if a token was read, false at the end of the input
+     */
+    public boolean nextToken() {
+        tokenLength = 0;
+        if (!skipSeparators())
+            return false;
+        do {
+            int start = position;
+            while (position < limit && !isSeparator(buffer[position]))
+                position++;
+            append(start, position - start);
+        } while (position == limit && fill());
+        return true;
+    }
+
+    /**
+     * @return the next token
+     * @throws NoSuchElementException if the input is exhausted
+     */
+    public String next() {
+        if (!nextToken())
+            throw new NoSuchElementException();
+        return token();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.ICommandSource#nextWord(java.lang.String[])
+     */
+    @Override
+    public String nextWord(String[] words) {
+        if (!nextToken())
+            throw new NoSuchElementException();
+        return tokenIn(words);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.ICommandSource#nextChar()
+     */
+    @Override
+    public char nextChar() {
+        if (!nextToken())
+            throw new NoSuchElementException();
+        return tokenChar(0);
+    }
+
+    /**
+     * @return the next token, parsed as a decimal int
+     * @throws NoSuchElementException if the input is exhausted
+     * @throws InputMismatchException if the token is not an int
+     */
+    @Override
+    public int nextInt() {
+        if (!nextToken())
+            throw new NoSuchElementException();
+
+        int i = 0;
+        boolean negative = token[0] == '-';
+        if (negative || token[0] == '+')
+            i++;
+        if (i == tokenLength)
+            throw new InputMismatchException(token());
+
+        int value = 0;
+        for (; i < tokenLength; i++) {
+            int digit = token[i] - '0';
+            if (digit < 0 || digit > 9 || value < (Integer.MIN_VALUE + digit) / 10)
+                throw new InputMismatchException(token());
+            value = value * 10 - digit;
+        }
+        if (!negative && value == Integer.MIN_VALUE)
+            throw new InputMismatchException(token());
+        return negative ? value : -value;
+    }
+
+    /**
+     * @param word An ASCII word
+     * @return true if the last token read is that word
+     */
+    public boolean tokenIs(String word) {
+        if (word.length() != tokenLength)
+            return false;
+        for (int i = 0; i < tokenLength; i++)
+            if (token[i] != word.charAt(i))
+                return false;
+        return true;
+    }
+
+    /**
+     * @param words ASCII words
+     * @return the word the last token read is equal to, or null if none
+     */
+    public String tokenIn(String[] words) {
+        for (String word : words)
+            if (tokenIs(word))
+                return word;
+        return null;
+    }
+
+    /**
+     * @param i Index of the byte, from 0 to tokenLength() - 1
+     * @return the i-th byte of the last token read, as a char
+     */
+    public char tokenChar(int i) {
+        assert i >= 0 && i < tokenLength;
+
+        return (char) (token[i] & 0xff);
+    }
+
+    /**
+     * @return the number of bytes of the last token read
+     */
+    public int tokenLength() {
+        return tokenLength;
+    }
+
+    /**
+     * @return the last token read
+     */
+    public String token() {
+        return new String(token, 0, tokenLength, StandardCharsets.UTF_8);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() throws IOException {
+        if (in != null)
+            in.close();
+        else
+            channel.close();
+    }
+
+    private boolean skipSeparators() {
+        while (true) {
+            while (position < limit && isSeparator(buffer[position]))
+                position++;
+            if (position < limit)
+                return true;
+            if (!fill())
+                return false;
+        }
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    private void append(int start, int length) {
+        if (tokenLength + length > token.length)
+            token = Arrays.copyOf(token, Math.max(token.length * 2, tokenLength + length));
+        System.arraycopy(buffer, start, token, tokenLength, length);
+        tokenLength += length;
+    }
+
+    /**
+     * Reads the next block of input into the buffer
+     *
+     * @return false if the input is exhausted
+     */
+    private boolean fill() {
+        if (eof)
+            return false;
+        try {
+            int n;
+            do {
+                if (in != null) {
+                    n = in.read(buffer, 0, buffer.length);
+                } else {
+                    window.clear();
+                    n = channel.read(window);
+                }
+            } while (n == 0);
+            position = 0;
+            limit = Math.max(n, 0);
+            eof = n < 0;
+            return !eof;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
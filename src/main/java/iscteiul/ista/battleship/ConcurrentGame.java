@@ -0,0 +1,344 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A game that several threads may fire at at once, e.g. a player's move and a
+ * timeout move, with the same outcomes as Game: each cell is hit or missed by
+ * exactly one shot, every other shot at it counts as repeated, and each ship is
+ * sunk by exactly one shot.
+ * <p>
+ * A shot first claims its cell with an atomic bit (a bitset of atomic words on
+ * small boards; striped locked grids on large ones), so only the thread that
+ * claims a cell goes on. Its shot is appended to a lock-free log and, if the
+ * cell belongs to a ship, the hit is applied under the fleet lock, the only
+ * lock taken, so that exactly one thread sees the ship sink. Counters that
+ * every shot may touch are LongAdders.
+ */
+public class ConcurrentGame implements IGame {
+    private static final int STRIPES = 64;
+
+    private final IFleet fleet;
+    private final GameRules rules;
+
+    // claimed cells: a bitset on small boards, striped grids on large ones
+    private final AtomicLongArray claims;
+    private final CellGrid[] stripes;
+
+    private final ShotLog log;
+    private final LongAdder countInvalidShots;
+    private final LongAdder countRepeatedShots;
+    private final AtomicInteger countHits;
+    private final AtomicInteger countSinks;
+    private final AtomicLong stateHash;
+    private volatile IShip lastSunk;
+    private BoardRenderer renderer;
+
+    /**
+     * @param fleet The fleet under attack; the game is played with its rules
+     */
+    public ConcurrentGame(IFleet fleet) {
+        this.fleet = fleet;
+        rules = fleet.getRules();
+        long cells = (long) rules.getBoardSize() * rules.getBoardSize();
+        if (cells <= CellGrid.DENSE_LIMIT) {
+            claims = new AtomicLongArray((int) ((cells + Long.SIZE - 1) / Long.SIZE));
+            stripes = null;
+        } else {
+            claims = null;
+            stripes = new CellGrid[STRIPES];
+            for (int i = 0; i < STRIPES; i++)
+                stripes[i] = CellGrid.create(rules.getBoardSize());
+        }
+        log = new ShotLog();
+        countInvalidShots = new LongAdder();
+        countRepeatedShots = new LongAdder();
+        countHits = new AtomicInteger();
+        countSinks = new AtomicInteger();
+        stateHash = new AtomicLong();
+        lastSunk = null;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#fire(battleship.IPosition)
+     */
+    @Override
+    public IShip fire(IPosition pos) {
+        if (fire(pos.getRow(), pos.getColumn()) == SHOT_SUNK)
+            return fleet.shipAt(pos.getRow(), pos.getColumn());
+        return null;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#fire(int, int)
+     */
+    @Override
+    public int fire(int row, int column) {
+        if (!rules.isInside(row, column)) {
+            countInvalidShots.increment();
+            return SHOT_INVALID;
+        }
+
+        if (!claim(row, column)) {
+            countRepeatedShots.increment();
+            return SHOT_REPEATED;
+        }
+
+        log.append(Coordinate.pack(row, column));
+        IShip s = fleet.shipAt(row, column);
+        int result;
+        if (s == null) {
+            result = SHOT_MISS;
+        } else {
+            synchronized (fleet) {
+                s.shoot(row, column);
+                result = s.stillFloating() ? SHOT_HIT : SHOT_SUNK;
+                if (result == SHOT_SUNK)
+                    lastSunk = s;
+            }
+            countHits.incrementAndGet();
+            if (result == SHOT_SUNK)
+                countSinks.incrementAndGet();
+        }
+        long key = Zobrist.keyOf(row, column, result, s);
+        stateHash.accumulateAndGet(key, (hash, k) -> hash ^ k);
+        return result;
+    }
+
+    /**
+     * @return true if this call marked the cell as fired, false if it already was
+     */
+    private boolean claim(int row, int column) {
+        if (claims != null) {
+            int cell = row * rules.getBoardSize() + column;
+            int word = cell / Long.SIZE;
+            long bit = 1L << (cell % Long.SIZE);
+            long old = claims.get(word);
+            while ((old & bit) == 0) {
+                long witness = claims.compareAndExchange(word, old, old | bit);
+                if (witness == old)
+                    return true;
+                old = witness;
+            }
+            return false;
+        }
+
+        CellGrid stripe = stripes[(int) Hashing.mix64(Coordinate.pack(row, column)) & (STRIPES - 1)];
+        synchronized (stripe) {
+            if (stripe.contains(row, column))
+                return false;
+            stripe.set(row, column);
+            return true;
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getLastSunkShip()
+     */
+    @Override
+    public IShip getLastSunkShip() {
+        return lastSunk;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getStateHash()
+     */
+    @Override
+    public long getStateHash() {
+        return stateHash.get();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getShots()
+     */
+    @Override
+    public List<IPosition> getShots() {
+        int size = log.size();
+        return new AbstractList<IPosition>() {
+            @Override
+            public IPosition get(int index) {
+                Objects.checkIndex(index, size);
+                return new Position(Coordinate.unpack(log.get(index)));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getRepeatedShots()
+     */
+    @Override
+    public int getRepeatedShots() {
+        return countRepeatedShots.intValue();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getInvalidShots()
+     */
+    @Override
+    public int getInvalidShots() {
+        return countInvalidShots.intValue();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getHits()
+     */
+    @Override
+    public int getHits() {
+        return countHits.get();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getSunkShips()
+     */
+    @Override
+    public int getSunkShips() {
+        return countSinks.get();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getRemainingShips()
+     */
+    @Override
+    public int getRemainingShips() {
+        synchronized (fleet) {
+            return fleet.countFloatingShips();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#printValidShots()
+     */
+    @Override
+    public synchronized void printValidShots() {
+        BoardRenderer r = renderer();
+        int size = log.size();
+        for (int i = 0; i < size; i++)
+            r.mark(Coordinate.rowOf(log.get(i)), Coordinate.columnOf(log.get(i)), 'X');
+        r.render();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#printFleet()
+     */
+    @Override
+    public synchronized void printFleet() {
+        BoardRenderer r = renderer();
+        for (IShip s : fleet.getShips())
+            for (IPosition pos : s.getPositions())
+                r.mark(pos.getRow(), pos.getColumn(), '#');
+        r.render();
+    }
+
+    /**
+     * @param renderer The renderer boards are printed with; by default boards
+     *                 are fully printed to System.out
+     */
+    public synchronized void setRenderer(BoardRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    private BoardRenderer renderer() {
+        if (renderer == null)
+            renderer = new BoardRenderer(rules.getBoardSize(), System.out, false);
+        renderer.begin();
+        return renderer;
+    }
+
+    /**
+     * An append-only log of packed shots that threads append to without locks.
+     * An append claims the next index with one atomic increment and writes the
+     * shot into a segment; segments double in size and are allocated by the
+     * first thread that needs them, so entries are never moved. Entries are
+     * stored with their top bit set, so that a reader can tell a claimed entry
+     * that is not written yet (zero) and wait for it.
+     */
+    private static final class ShotLog {
+        private static final int FIRST_SEGMENT_SHIFT = 4;
+        private static final long WRITTEN = Long.MIN_VALUE;
+
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicReferenceArray<AtomicLongArray> segments =
+                new AtomicReferenceArray<>(Integer.SIZE - FIRST_SEGMENT_SHIFT);
+
+        private void append(long shot) {
+            assert (shot & WRITTEN) == 0;
+
+            int index = next.getAndIncrement();
+            int s = segmentOf(index);
+            AtomicLongArray segment = segments.get(s);
+            if (segment == null) {
+                segments.compareAndSet(s, null, new AtomicLongArray(1 << (s + FIRST_SEGMENT_SHIFT)));
+                segment = segments.get(s);
+            }
+            segment.set(offsetOf(index, s), shot | WRITTEN);
+        }
+
+        /**
+         * @return the number of shots appended or being appended
+         */
+        private int size() {
+            return next.get();
+        }
+
+        /**
+         * @return the index-th shot, waiting for it if its append is in progress
+         */
+        private long get(int index) {
+            int s = segmentOf(index);
+            AtomicLongArray segment;
+            while ((segment = segments.get(s)) == null)
+                Thread.onSpinWait();
+            long entry;
+            while ((entry = segment.get(offsetOf(index, s))) == 0)
+                Thread.onSpinWait();
+            return entry & ~WRITTEN;
+        }
+
+        private static int segmentOf(int index) {
+            return 31 - Integer.numberOfLeadingZeros((index >>> FIRST_SEGMENT_SHIFT) + 1);
+        }
+
+        private static int offsetOf(int index, int segment) {
+            return index - (((1 << segment) - 1) << FIRST_SEGMENT_SHIFT);
+        }
+    }
+}
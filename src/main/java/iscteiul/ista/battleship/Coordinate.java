@@ -0,0 +1,64 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * An immutable board coordinate. Coordinates are plain values: equality and
+ * hashing depend only on row and column, so they are safe to use as keys in
+ * hashed collections. They can also be packed into a single long (row in the
+ * high half, column in the low half), which orders them row by row.
+ *
+ * @param row    the row
+ * @param column the column
+ */
+public record Coordinate(int row, int column) {
+
+    /**
+     * @return the row and column packed into a single long
+     */
+    public static long pack(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return the row of a packed coordinate
+     */
+    public static int rowOf(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * @return the column of a packed coordinate
+     */
+    public static int columnOf(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * @return the coordinate of a packed coordinate
+     */
+    public static Coordinate unpack(long packed) {
+        return new Coordinate(rowOf(packed), columnOf(packed));
+    }
+
+    /**
+     * The hash code shared by every IPosition implementation, so that positions
+     * that are equal (same row and column) have the same hash code
+     */
+    public static int hash(int row, int column) {
+        return Long.hashCode(pack(row, column) * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * @return this coordinate packed into a single long
+     */
+    public long pack() {
+        return pack(row, column);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash(row, column);
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * Cell grid backed by one bit word per 64 cells and, once needed, one int per cell
+ */
+final class DenseCellGrid extends CellGrid {
+    private static final int WORD_BITS = Long.SIZE;
+
+    private final int boardSize;
+    private final long[] bits;
+    private int[] values;
+
+    DenseCellGrid(int boardSize) {
+        this.boardSize = boardSize;
+        int cells = boardSize * boardSize;
+        bits = new long[(cells + WORD_BITS - 1) / WORD_BITS];
+        values = null;
+    }
+
+    private DenseCellGrid(int boardSize, long[] bits) {
+        this.boardSize = boardSize;
+        this.bits = bits;
+    }
+
+    @Override
+    long footprint() {
+        return Footprint.object(4 + 2 * Footprint.REFERENCE) + Footprint.array(bits.length, Long.BYTES)
+                + (values == null ? 0 : Footprint.array(values.length, Integer.BYTES));
+    }
+
+    @Override
+    public boolean contains(int row, int column) {
+        int cell = row * boardSize + column;
+        return (bits[cell / WORD_BITS] & (1L << (cell % WORD_BITS))) != 0;
+    }
+
+    @Override
+    public void set(int row, int column) {
+        int cell = row * boardSize + column;
+        bits[cell / WORD_BITS] |= 1L << (cell % WORD_BITS);
+    }
+
+    @Override
+    public int get(int row, int column) {
+        return values == null ? 0 : values[row * boardSize + column];
+    }
+
+    @Override
+    public void put(int row, int column, int value) {
+        if (values == null)
+            values = new int[boardSize * boardSize];
+        set(row, column);
+        values[row * boardSize + column] = value;
+    }
+
+    @Override
+    public void remove(int row, int column) {
+        int cell = row * boardSize + column;
+        bits[cell / WORD_BITS] &= ~(1L << (cell % WORD_BITS));
+        if (values != null)
+            values[cell] = 0;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.CellGrid#copy()
+     */
+    @Override
+    public CellGrid copy() {
+        DenseCellGrid copy = new DenseCellGrid(boardSize, bits.clone());
+        copy.values = (values == null) ? null : values.clone();
+        return copy;
+    }
+}
@@ -0,0 +1,381 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * An attacker that fires at the cell covered by the most placements of the
+ * ships still floating that are consistent with the shots so far. A placement
+ * (a ship shape at a given position) is consistent if it lies inside the board
+ * and none of its cells is known water (a miss, or a cell around a sunk ship) or
+ * part of a sunk ship.
+ * <p>
+ * While there are hits on ships not yet sunk, only placements through those
+ * hits are counted (target mode); otherwise every placement counts (hunt mode).
+ * In target mode a placement through k hits weighs 4^(k-1) times the number of
+ * floating ships of its kind, so placements lining up several hits clearly
+ * outweigh those through a single one; it is also counted once per hit it goes
+ * through, as it is found from each of them.
+ * <p>
+ * On boards with up to CellGrid.DENSE_LIMIT cells the hunt density is kept per
+ * kind of ship and per cell, and each known water cell only takes away the
+ * placements through it, so choosing a shot is one pass over the board. On
+ * larger boards the density of a sample of unknown cells is worked out on demand
+ * and the best of them is chosen.
+ */
+public class DensityAttacker implements IAttacker {
+    private static final int UNKNOWN = 0;
+    private static final int WATER = 1;
+    private static final int HIT = 2;
+    private static final int SUNK = 3;
+
+    private static final Compass[] BEARINGS = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+    private static final int SAMPLES = 64;
+    private static final int MAX_SAMPLES = 1 << 16;
+
+    private final int size;
+    private final SplittableRandom random;
+    private final String[] categories;
+    private final int[] floating;
+    private final ShipShape[][] shapes;
+    private final CellGrid cells;
+    private final int[][] density;
+
+    private long[] hits;
+    private int hitCount;
+
+    private final CellGrid scores;
+    private long[] scored;
+    private int scoredCount;
+
+    /**
+     * Attacks the standard fleet on the standard board
+     *
+     * @param random The source of randomness used to break ties
+     */
+    public DensityAttacker(SplittableRandom random) {
+        this(GameRules.STANDARD, FleetGenerator.STANDARD_COMPOSITION, random);
+    }
+
+    /**
+     * @param rules       The rules of the game under attack
+     * @param composition The kinds of ships of the fleet under attack (e.g.
+     *                    "galeao"), see FleetGenerator
+     * @param random      The source of randomness used to break ties and sample
+     *                    large boards
+     */
+    public DensityAttacker(GameRules rules, List<String> composition, SplittableRandom random) {
+        size = rules.getBoardSize();
+        this.random = random;
+
+        List<String> kinds = new ArrayList<>();
+        int[] counts = new int[composition.size()];
+        for (String kind : composition) {
+            Ship probe = Ship.buildShip(kind, Compass.NORTH, new Position(0, 0));
+            if (probe == null)
+                throw new IllegalArgumentException("ERROR! unknown kind of ship " + kind);
+            int c = kinds.indexOf(probe.getCategory());
+            if (c < 0) {
+                c = kinds.size();
+                kinds.add(probe.getCategory());
+            }
+            counts[c]++;
+        }
+        categories = kinds.toArray(new String[0]);
+        floating = Arrays.copyOf(counts, categories.length);
+        shapes = new ShipShape[categories.length][];
+        for (int c = 0; c < categories.length; c++)
+            shapes[c] = distinctShapes(categories[c]);
+
+        cells = CellGrid.create(size);
+        scores = CellGrid.create(size);
+        scored = new long[64];
+        hits = new long[16];
+        hitCount = 0;
+        scoredCount = 0;
+
+        if ((long) size * size <= CellGrid.DENSE_LIMIT) {
+            density = new int[categories.length][size * size];
+            for (int c = 0; c < categories.length; c++)
+                for (ShipShape shape : shapes[c])
+                    for (int row = -shape.getTop(); row + shape.getBottom() < size; row++)
+                        for (int column = -shape.getLeft(); column + shape.getRight() < size; column++)
+                            addPlacement(density[c], shape, row, column, 1);
+        } else {
+            density = null;
+        }
+    }
+
+    /**
+     * The shapes of a kind of ship for every bearing, without repeating the
+     * shapes that cover the same cells
+     */
+    private static ShipShape[] distinctShapes(String category) {
+        List<ShipShape> distinct = new ArrayList<>();
+        for (Compass bearing : BEARINGS) {
+            ShipShape shape = ShipShape.of(category, bearing);
+            boolean repeated = false;
+            for (ShipShape other : distinct)
+                repeated |= sameCells(shape, other);
+            if (!repeated)
+                distinct.add(shape);
+        }
+        return distinct.toArray(new ShipShape[0]);
+    }
+
+    private static boolean sameCells(ShipShape a, ShipShape b) {
+        if (a.getSize() != b.getSize())
+            return false;
+        for (int i = 0; i < a.getSize(); i++)
+            if (a.getRowOffset(i) != b.getRowOffset(i) || a.getColumnOffset(i) != b.getColumnOffset(i))
+                return false;
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IAttacker#nextShot()
+     */
+    @Override
+    public long nextShot() {
+        if (hitCount > 0) {
+            long shot = target();
+            if (shot >= 0)
+                return shot;
+        }
+        return (density != null) ? scan() : sample();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IAttacker#update(int, int, int, battleship.IShip)
+     */
+    @Override
+    public void update(int row, int column, int result, IShip sunk) {
+        switch (result) {
+            case IGame.SHOT_MISS:
+                block(row, column, WATER);
+                break;
+            case IGame.SHOT_HIT:
+                cells.put(row, column, HIT);
+                if (hitCount == hits.length)
+                    hits = Arrays.copyOf(hits, hits.length * 2);
+                hits[hitCount++] = Coordinate.pack(row, column);
+                break;
+            case IGame.SHOT_SUNK:
+                sink(sunk);
+                break;
+            default:
+                // invalid and repeated shots teach nothing
+        }
+    }
+
+    /**
+     * Marks the cells of a sunk ship, and the water around it, as known
+     */
+    private void sink(IShip ship) {
+        for (int c = 0; c < categories.length; c++)
+            if (categories[c].equals(ship.getCategory()) && floating[c] > 0)
+                floating[c]--;
+
+        for (IPosition pos : ship.getPositions()) {
+            block(pos.getRow(), pos.getColumn(), SUNK);
+            long packed = Coordinate.pack(pos.getRow(), pos.getColumn());
+            for (int i = 0; i < hitCount; i++)
+                if (hits[i] == packed)
+                    hits[i--] = hits[--hitCount];
+        }
+        for (IPosition pos : ship.getPositions())
+            for (int dr = -1; dr <= 1; dr++)
+                for (int dc = -1; dc <= 1; dc++) {
+                    int row = pos.getRow() + dr;
+                    int column = pos.getColumn() + dc;
+                    if (isInside(row, column) && cells.get(row, column) == UNKNOWN)
+                        block(row, column, WATER);
+                }
+    }
+
+    /**
+     * Marks a cell as known water or sunk ship, taking the placements through it
+     * away from the density
+     */
+    private void block(int row, int column, int state) {
+        if (density != null && !isBlocked(row, column))
+            for (int c = 0; c < categories.length; c++)
+                for (ShipShape shape : shapes[c])
+                    for (int i = 0; i < shape.getSize(); i++) {
+                        int r = row - shape.getRowOffset(i);
+                        int col = column - shape.getColumnOffset(i);
+                        if (isConsistent(shape, r, col))
+                            addPlacement(density[c], shape, r, col, -1);
+                    }
+        cells.put(row, column, state);
+    }
+
+    /**
+     * Hunt mode on small boards: the unknown cell with the highest density
+     */
+    private long scan() {
+        long best = -1;
+        long bestScore = -1;
+        int ties = 0;
+        for (int row = 0; row < size; row++)
+            for (int column = 0; column < size; column++) {
+                if (cells.get(row, column) != UNKNOWN)
+                    continue;
+                int cell = row * size + column;
+                long score = 0;
+                for (int c = 0; c < categories.length; c++)
+                    score += (long) floating[c] * density[c][cell];
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = Coordinate.pack(row, column);
+                    ties = 1;
+                } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                    best = Coordinate.pack(row, column);
+                }
+            }
+        if (best < 0)
+            throw new IllegalStateException("ERROR! no cell left to fire at");
+        return best;
+    }
+
+    /**
+     * Hunt mode on large boards: the unknown cell with the highest density of a
+     * random sample
+     */
+    private long sample() {
+        long best = -1;
+        long bestScore = -1;
+        int found = 0;
+        for (int t = 0; t < MAX_SAMPLES && found < SAMPLES; t++) {
+            int row = random.nextInt(size);
+            int column = random.nextInt(size);
+            if (cells.get(row, column) != UNKNOWN)
+                continue;
+            found++;
+            long score = 0;
+            for (int c = 0; c < categories.length; c++)
+                if (floating[c] > 0)
+                    score += (long) floating[c] * placementsThrough(c, row, column);
+            if (score > bestScore) {
+                bestScore = score;
+                best = Coordinate.pack(row, column);
+            }
+        }
+        if (best < 0)
+            throw new IllegalStateException("ERROR! no cell left to fire at");
+        return best;
+    }
+
+    private int placementsThrough(int c, int row, int column) {
+        int n = 0;
+        for (ShipShape shape : shapes[c])
+            for (int i = 0; i < shape.getSize(); i++)
+                if (isConsistent(shape, row - shape.getRowOffset(i), column - shape.getColumnOffset(i)))
+                    n++;
+        return n;
+    }
+
+    /**
+     * Target mode: scores the unknown cells of the consistent placements through
+     * the hits on ships not yet sunk
+     *
+     * @return the best cell, or -1 if there is none
+     */
+    private long target() {
+        for (int h = 0; h < hitCount; h++) {
+            int hitRow = Coordinate.rowOf(hits[h]);
+            int hitColumn = Coordinate.columnOf(hits[h]);
+            for (int c = 0; c < categories.length; c++) {
+                if (floating[c] == 0)
+                    continue;
+                for (ShipShape shape : shapes[c])
+                    for (int i = 0; i < shape.getSize(); i++) {
+                        int row = hitRow - shape.getRowOffset(i);
+                        int column = hitColumn - shape.getColumnOffset(i);
+                        if (isConsistent(shape, row, column))
+                            scorePlacement(shape, row, column, floating[c]);
+                    }
+            }
+        }
+
+        long best = -1;
+        int bestScore = 0;
+        int ties = 0;
+        for (int i = 0; i < scoredCount; i++) {
+            int row = Coordinate.rowOf(scored[i]);
+            int column = Coordinate.columnOf(scored[i]);
+            int score = scores.get(row, column);
+            scores.remove(row, column);
+            if (score > bestScore) {
+                bestScore = score;
+                best = scored[i];
+                ties = 1;
+            } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                best = scored[i];
+            }
+        }
+        scoredCount = 0;
+        return best;
+    }
+
+    /**
+     * Adds the weight of a placement, which grows fourfold with every hit it goes
+     * through, to its unknown cells
+     */
+    private void scorePlacement(ShipShape shape, int row, int column, int count) {
+        int hitsCovered = 0;
+        for (int j = 0; j < shape.getSize(); j++)
+            if (cells.get(row + shape.getRowOffset(j), column + shape.getColumnOffset(j)) == HIT)
+                hitsCovered++;
+        int weight = count << (2 * (hitsCovered - 1));
+
+        for (int j = 0; j < shape.getSize(); j++) {
+            int r = row + shape.getRowOffset(j);
+            int col = column + shape.getColumnOffset(j);
+            if (cells.get(r, col) != UNKNOWN)
+                continue;
+            if (!scores.contains(r, col)) {
+                if (scoredCount == scored.length)
+                    scored = Arrays.copyOf(scored, scored.length * 2);
+                scored[scoredCount++] = Coordinate.pack(r, col);
+            }
+            scores.put(r, col, scores.get(r, col) + weight);
+        }
+    }
+
+    private void addPlacement(int[] map, ShipShape shape, int row, int column, int delta) {
+        for (int j = 0; j < shape.getSize(); j++)
+            map[(row + shape.getRowOffset(j)) * size + column + shape.getColumnOffset(j)] += delta;
+    }
+
+    /**
+     * @return true if the shape at that position lies inside the board and none
+     * of its cells is known water or a sunk ship
+     */
+    private boolean isConsistent(ShipShape shape, int row, int column) {
+        if (!shape.fits(row, column, size))
+            return false;
+        for (int j = 0; j < shape.getSize(); j++)
+            if (isBlocked(row + shape.getRowOffset(j), column + shape.getColumnOffset(j)))
+                return false;
+        return true;
+    }
+
+    private boolean isBlocked(int row, int column) {
+        int state = cells.get(row, column);
+        return state == WATER || state == SUNK;
+    }
+
+    private boolean isInside(int row, int column) {
+        return row >= 0 && row < size && column >= 0 && column < size;
+    }
+}
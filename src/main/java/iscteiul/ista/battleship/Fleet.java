@@ -3,6 +3,7 @@
  */
 package iscteiul.ista.battleship;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,16 +14,75 @@ public class Fleet implements IFleet {
      * @param ships The list of ships
      */
     static void printShips(List<IShip> ships) {
+        printShips(ships, System.out);
+    }
+
+    private static void printShips(List<IShip> ships, PrintStream out) {
         for (IShip ship : ships)
-            System.out.println(ship);
+            out.println(ship);
     }
 
+    /**
+     * The categories printed by printStatus, in order
+     */
+    private static final String[] STATUS_CATEGORIES = {"Galeao", "Fragata", "Nau", "Caravela", "Barca"};
+
     // -----------------------------------------------------
 
+    private final GameRules rules;
     private List<IShip> ships;
+    private int floatingShips;
 
     public Fleet() {
+        this(GameRules.STANDARD);
+    }
+
+    /**
+     * @param rules The board size and fleet size limit of this fleet
+     */
+    public Fleet(GameRules rules) {
+        assert rules != null;
+
+        this.rules = rules;
         ships = new ArrayList<>();
+        floatingShips = 0;
+    }
+
+    /**
+     * Builds an independent copy of a fleet, with a copy of each of its ships
+     *
+     * @param other The fleet to copy
+     */
+    protected Fleet(Fleet other) {
+        rules = other.rules;
+        ships = new ArrayList<>(other.ships.size());
+        for (IShip s : other.ships) {
+            IShip copy = s.copy();
+            if (copy instanceof Ship)
+                ((Ship) copy).enlistIn(this);
+            ships.add(copy);
+        }
+        floatingShips = other.floatingShips;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#copy()
+     */
+    @Override
+    public Fleet copy() {
+        return new Fleet(this);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#getRules()
+     */
+    @Override
+    public GameRules getRules() {
+        return rules;
     }
 
     @Override
@@ -38,8 +98,12 @@ public class Fleet implements IFleet {
     @Override
     public boolean addShip(IShip s) {
         boolean result = false;
-        if ((ships.size() <= FLEET_SIZE) && (isInsideBoard(s)) && (!colisionRisk(s))) {
+        if ((ships.size() <= rules.getFleetSize()) && (isInsideBoard(s)) && (!colisionRisk(s))) {
             ships.add(s);
+            if (s.stillFloating())
+                floatingShips++;
+            if (s instanceof Ship)
+                ((Ship) s).enlistIn(this);
             result = true;
         }
         return result;
@@ -75,6 +139,50 @@ public class Fleet implements IFleet {
         return floatingShips;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#countFloatingShips()
+     */
+    @Override
+    public int countFloatingShips() {
+        return floatingShips;
+    }
+
+    /**
+     * Called by a ship of this fleet when its last position is hit
+     *
+     * @param s The ship that has just sunk
+     */
+    void shipSunk(IShip s) {
+        assert ships.contains(s);
+
+        floatingShips--;
+    }
+
+    /**
+     * @return an estimate of the heap taken by the fleet and its ships, in bytes
+     */
+    long footprint() {
+        long bytes = Footprint.object(2 * Footprint.REFERENCE + Integer.BYTES)
+                + Footprint.object(2 * Integer.BYTES + Footprint.REFERENCE)
+                + Footprint.array(ships.size(), Footprint.REFERENCE);
+        for (IShip s : ships)
+            bytes += (s instanceof Ship) ? ((Ship) s).footprint() : Footprint.object(8 * Footprint.REFERENCE);
+        return bytes;
+    }
+
+    /**
+     * Called by a sunk ship of this fleet when a hit on it is taken back
+     *
+     * @param s The ship that floats again
+     */
+    void shipRefloated(IShip s) {
+        assert ships.contains(s);
+
+        floatingShips++;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -88,12 +196,24 @@ public class Fleet implements IFleet {
         return null;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#shipAt(int, int)
+     */
+    @Override
+    public IShip shipAt(int row, int column) {
+        for (int i = 0; i < ships.size(); i++)
+            if (ships.get(i).occupies(row, column))
+                return ships.get(i);
+        return null;
+    }
+
     private boolean isInsideBoard(IShip s) {
-        return (s.getLeftMostPos() >= 0 && s.getRightMostPos() <= BOARD_SIZE - 1 && s.getTopMostPos() >= 0
-                && s.getBottomMostPos() <= BOARD_SIZE - 1);
+        return s.getBoundingBox().isInside(rules.getBoardSize());
     }
 
-    private boolean colisionRisk(IShip s) {
+    protected boolean colisionRisk(IShip s) {
         for (int i = 0; i < ships.size(); i++) {
             if (ships.get(i).tooCloseTo(s))
                 return true;
@@ -106,13 +226,22 @@ public class Fleet implements IFleet {
      * This operation shows the state of a fleet
      */
     public void printStatus() {
-        printAllShips();
-        printFloatingShips();
-        printShipsByCategory("Galeao");
-        printShipsByCategory("Fragata");
-        printShipsByCategory("Nau");
-        printShipsByCategory("Caravela");
-        printShipsByCategory("Barca");
+        printStatus(System.out);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#printStatus(java.io.PrintStream)
+     */
+    @Override
+    public void printStatus(PrintStream out) {
+        assert out != null;
+
+        printShips(ships, out);
+        printShips(getFloatingShips(), out);
+        for (String category : STATUS_CATEGORIES)
+            printShips(getShipsLike(category), out);
     }
 
     /**
@@ -0,0 +1,143 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Generates legal random fleets: every ship inside the board and no two ships
+ * touching, as checked by Fleet#addShip. Ships are placed from the largest to the
+ * smallest, each at a random bearing and position among those that fit the board,
+ * retrying positions that would touch a ship already placed (see
+ * BitboardFleet#isForbidden) and starting over in the rare case of a dead end.
+ * <p>
+ * Each fleet is drawn from its own SplittableRandom, seeded from the generator
+ * seed and the index of the fleet, so fleets are generated in parallel without
+ * sharing any state and the i-th fleet of a seed is always the same, whatever
+ * the number of threads.
+ */
+public final class FleetGenerator {
+
+    /**
+     * The standard fleet: 1 galeao, 1 fragata, 2 naus, 3 caravelas and 4 barcas
+     */
+    public static final List<String> STANDARD_COMPOSITION = List.of("galeao", "fragata", "nau", "nau",
+            "caravela", "caravela", "caravela", "barca", "barca", "barca", "barca");
+
+    private static final Compass[] BEARINGS = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final int MAX_TRIES = 1_000;
+    private static final int MAX_RESTARTS = 1_000;
+
+    private final GameRules rules;
+    private final String[] kinds;
+    private final ShipShape[][] shapes;
+
+    /**
+     * Generates standard fleets on the standard board
+     */
+    public FleetGenerator() {
+        this(GameRules.STANDARD, STANDARD_COMPOSITION);
+    }
+
+    /**
+     * @param rules       The rules of the fleets
+     * @param composition The kinds of ships of each fleet (e.g. "galeao"), in the
+     *                    order they are placed; larger ships first work best
+     */
+    public FleetGenerator(GameRules rules, List<String> composition) {
+        if (composition.size() > rules.getFleetSize() + 1)
+            throw new IllegalArgumentException("ERROR! too many ships for " + rules);
+
+        this.rules = rules;
+        kinds = composition.toArray(new String[0]);
+        shapes = new ShipShape[kinds.length][BEARINGS.length];
+        for (int i = 0; i < kinds.length; i++) {
+            Ship probe = Ship.buildShip(kinds[i], Compass.NORTH, new Position(0, 0));
+            if (probe == null)
+                throw new IllegalArgumentException("ERROR! unknown kind of ship " + kinds[i]);
+            for (int b = 0; b < BEARINGS.length; b++)
+                shapes[i][b] = ShipShape.of(probe.getCategory(), BEARINGS[b]);
+        }
+    }
+
+    /**
+     * @param random The source of randomness
+     * @return a new legal fleet
+     * @throws IllegalStateException if the ships do not fit the board
+     */
+    public BitboardFleet generate(SplittableRandom random) {
+        for (int restart = 0; restart < MAX_RESTARTS; restart++) {
+            BitboardFleet fleet = tryGenerate(random);
+            if (fleet != null)
+                return fleet;
+        }
+        throw new IllegalStateException("ERROR! could not place the fleet on " + rules);
+    }
+
+    /**
+     * @param seed  The seed of the fleets
+     * @param count Number of fleets
+     * @return a stream of count fleets; the stream can be made parallel, and its
+     * i-th fleet only depends on seed and i
+     */
+    public Stream<BitboardFleet> stream(long seed, long count) {
+        return LongStream.range(0, count).mapToObj(i -> generate(randomFor(seed, i)));
+    }
+
+    /**
+     * @param seed  The seed of the fleets
+     * @param count Number of fleets
+     * @return count fleets, generated in parallel
+     */
+    public List<BitboardFleet> generate(long seed, int count) {
+        return stream(seed, count).parallel().collect(Collectors.toList());
+    }
+
+    /**
+     * @return the independent source of randomness of the i-th fleet of a seed
+     */
+    static SplittableRandom randomFor(long seed, long i) {
+        return new SplittableRandom(Hashing.mix64(seed + (i + 1) * GOLDEN_GAMMA));
+    }
+
+    /**
+     * @return the fleet, or null if some ship could not be placed
+     */
+    private BitboardFleet tryGenerate(SplittableRandom random) {
+        BitboardFleet fleet = new BitboardFleet(rules);
+        int size = rules.getBoardSize();
+        for (int i = 0; i < kinds.length; i++) {
+            boolean placed = false;
+            for (int t = 0; t < MAX_TRIES && !placed; t++) {
+                int b = random.nextInt(BEARINGS.length);
+                ShipShape shape = shapes[i][b];
+                int rows = size - (shape.getBottom() - shape.getTop());
+                int columns = size - (shape.getRight() - shape.getLeft());
+                if (rows <= 0 || columns <= 0)
+                    continue;
+                int row = random.nextInt(rows) - shape.getTop();
+                int column = random.nextInt(columns) - shape.getLeft();
+                if (isFree(fleet, shape, row, column)) {
+                    placed = fleet.addShip(Ship.buildShip(kinds[i], BEARINGS[b], new Position(row, column)));
+                    assert placed;
+                }
+            }
+            if (!placed)
+                return null;
+        }
+        return fleet;
+    }
+
+    private static boolean isFree(BitboardFleet fleet, ShipShape shape, int row, int column) {
+        for (int i = 0; i < shape.getSize(); i++)
+            if (fleet.isForbidden(row + shape.getRowOffset(i), column + shape.getColumnOffset(i)))
+                return false;
+        return true;
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * Estimates of the heap taken by objects and arrays, for the memory accounting
+ * of games (see GameRegistry). They assume a 64 bit JVM with compressed object
+ * pointers: 12 byte object headers, 16 byte array headers, 4 byte references
+ * and sizes rounded up to 8 bytes.
+ */
+final class Footprint {
+    static final int REFERENCE = 4;
+
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+
+    private Footprint() {
+    }
+
+    /**
+     * @param fieldBytes Total size of the fields of the object
+     * @return the estimated size of the object
+     */
+    static long object(long fieldBytes) {
+        return align(OBJECT_HEADER + fieldBytes);
+    }
+
+    /**
+     * @param length      Length of the array
+     * @param elementSize Size of each element (REFERENCE for object arrays)
+     * @return the estimated size of the array
+     */
+    static long array(long length, int elementSize) {
+        return align(ARRAY_HEADER + length * elementSize);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -3,28 +3,77 @@
  */
 package iscteiul.ista.battleship;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 /**
- * @author fba
+ * Every call to fire(int, int) is recorded in a journal of its outcome (one
+ * byte) and the ship it hit, if any, so that undo() takes it back in constant
+ * time: the shot history and the ships sunk so far are stacks, and the ship is
+ * never looked up in the fleet. Undone shots can be fired again with redo(), until
+ * a new shot is fired. This lets depth-first searches make and unmake moves on
+ * a single game, without copying it.
+ * <p>
+ * The game also keeps the Zobrist hash of its shot outcomes (see Zobrist),
+ * updated by every shot and every undo, so that searches can recognise states
+ * reached through different orders of the same shots.
+ * <p>
+ * The journal grows with every shot, invalid and repeated ones included, so
+ * games that are never searched, such as the live games of a service (see
+ * GameRegistry), can be built without one.
  *
+ * @author fba
  */
-public class Game implements IGame {
+public class Game implements ISearchGame {
+    private static final int INITIAL_SHOTS = 16;
+    private static final int INITIAL_SINKS = 4;
+
     private IFleet fleet;
-    private List<IPosition> shots;
+    private GameRules rules;
+    private long[] shots;
+    private int shotCount;
+    private CellGrid shotCells;
+    private boolean sharedShots;
+    private IShip[] sunk;
+    private byte[] journal;
+    private IShip[] journalShips;
+    private int journalCount;
+    private int journalLimit;
+    private long stateHash;
+    private BoardRenderer renderer;
 
-    private Integer countInvalidShots;
-    private Integer countRepeatedShots;
-    private Integer countHits;
-    private Integer countSinks;
+    private int countInvalidShots;
+    private int countRepeatedShots;
+    private int countHits;
+    private int countSinks;
 
 
     /**
-     * @param fleet
+     * @param fleet The fleet under attack; the game is played with its rules
      */
     public Game(IFleet fleet) {
-        shots = new ArrayList<>();
+        this(fleet, true);
+    }
+
+    /**
+     * @param fleet     The fleet under attack; the game is played with its rules
+     * @param journaled Whether shots are journaled, so that they can be undone;
+     *                  without a journal, undo() and redo() always return false
+     */
+    public Game(IFleet fleet, boolean journaled) {
+        rules = fleet.getRules();
+        shots = new long[(int) Math.min((long) rules.getBoardSize() * rules.getBoardSize(), INITIAL_SHOTS)];
+        shotCount = 0;
+        shotCells = CellGrid.create(rules.getBoardSize());
+        sharedShots = false;
+        sunk = new IShip[INITIAL_SINKS];
+        journal = journaled ? new byte[INITIAL_SHOTS] : null;
+        journalShips = journaled ? new IShip[INITIAL_SHOTS] : null;
+        journalCount = 0;
+        journalLimit = 0;
+        stateHash = 0;
         countInvalidShots = 0;
         countRepeatedShots = 0;
         countHits = 0;      //faltava
@@ -32,6 +81,46 @@ public class Game implements IGame {
         this.fleet = fleet;
     }
 
+    /**
+     * Builds an independent copy of a game in progress. The fleet is copied;
+     * the shot history is shared with the original until either game fires a
+     * new shot (copy on write). The copy starts with an empty journal, if the
+     * original has one, so its shots before the fork cannot be undone
+     *
+     * @param other The game to copy
+     */
+    protected Game(Game other) {
+        fleet = other.fleet.copy();
+        rules = other.rules;
+        shots = other.shots;
+        shotCount = other.shotCount;
+        shotCells = other.shotCells;
+        sharedShots = true;
+        other.sharedShots = true;
+        sunk = new IShip[other.sunk.length];
+        for (int i = 0; i < other.countSinks; i++)
+            sunk[i] = fleet.getShips().get(other.fleet.getShips().indexOf(other.sunk[i]));
+        journal = (other.journal == null) ? null : new byte[INITIAL_SHOTS];
+        journalShips = (other.journal == null) ? null : new IShip[INITIAL_SHOTS];
+        journalCount = 0;
+        journalLimit = 0;
+        stateHash = other.stateHash;
+        countInvalidShots = other.countInvalidShots;
+        countRepeatedShots = other.countRepeatedShots;
+        countHits = other.countHits;
+        countSinks = other.countSinks;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.ISearchGame#fork()
+     */
+    @Override
+    public Game fork() {
+        return new Game(this);
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -39,25 +128,154 @@ public class Game implements IGame {
      */
     @Override
     public IShip fire(IPosition pos) {
-        if (!validShot(pos))
+        if (fire(pos.getRow(), pos.getColumn()) == SHOT_SUNK)
+            return getLastSunkShip();
+        return null;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#fire(int, int)
+     */
+    @Override
+    public int fire(int row, int column) {
+        if (journal == null)
+            return shoot(row, column);
+
+        if (journalCount == journal.length) {
+            journal = Arrays.copyOf(journal, journal.length * 2);
+            journalShips = Arrays.copyOf(journalShips, journal.length);
+        }
+        int result = shoot(row, column);
+        journal[journalCount++] = (byte) result;
+        journalLimit = journalCount;
+        return result;
+    }
+
+    /**
+     * Applies a shot; a ship it hits is written to the next journal entry, if
+     * the game is journaled
+     */
+    private int shoot(int row, int column) {
+        if (!validShot(row, column)) {
             countInvalidShots++;
-        else { // valid shot!
-            if (repeatedShot(pos))
-                countRepeatedShots++;
-            else {
-                shots.add(pos);
-                IShip s = fleet.shipAt(pos);
-                if (s != null) {
-                    s.shoot(pos);
-                    countHits++;
-                    if (!s.stillFloating()) {
-                        countSinks++;
-                        return s;
-                    }
+            return SHOT_INVALID;
+        }
+
+        if (shotCells.contains(row, column)) {
+            countRepeatedShots++;
+            return SHOT_REPEATED;
+        }
+
+        recordShot(row, column);
+        IShip s = fleet.shipAt(row, column);
+        if (s == null) {
+            stateHash ^= Zobrist.keyOf(row, column, SHOT_MISS, null);
+            return SHOT_MISS;
+        }
+
+        s.shoot(row, column);
+        if (journalShips != null)
+            journalShips[journalCount] = s;
+        countHits++;
+        if (s.stillFloating()) {
+            stateHash ^= Zobrist.keyOf(row, column, SHOT_HIT, null);
+            return SHOT_HIT;
+        }
+
+        if (countSinks == sunk.length)
+            sunk = Arrays.copyOf(sunk, sunk.length * 2);
+        sunk[countSinks++] = s;
+        stateHash ^= Zobrist.keyOf(row, column, SHOT_SUNK, s);
+        return SHOT_SUNK;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.ISearchGame#undo()
+     */
+    @Override
+    public boolean undo() {
+        if (journalCount == 0)
+            return false;
+
+        int result = journal[journalCount - 1];
+        switch (result) {
+            case SHOT_INVALID:
+                countInvalidShots--;
+                break;
+            case SHOT_REPEATED:
+                countRepeatedShots--;
+                break;
+            default:
+                long shot = shots[shotCount - 1];
+                int row = Coordinate.rowOf(shot);
+                int column = Coordinate.columnOf(shot);
+                IShip s = null;
+                if (result != SHOT_MISS) {
+                    s = journalShips[journalCount - 1];
+                    journalShips[journalCount - 1] = null;
+                    s.unshoot(row, column);
+                    if (result == SHOT_SUNK)
+                        sunk[--countSinks] = null;
+                    countHits--;
                 }
-            }
+                stateHash ^= Zobrist.keyOf(row, column, result, s);
+                unrecordShot(row, column);
         }
-        return null;
+        journalCount--;
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.ISearchGame#redo()
+     */
+    @Override
+    public boolean redo() {
+        if (journalCount == journalLimit)
+            return false;
+
+        int limit = journalLimit;
+        switch (journal[journalCount]) {
+            case SHOT_INVALID:
+                countInvalidShots++;
+                journalCount++;
+                break;
+            case SHOT_REPEATED:
+                countRepeatedShots++;
+                journalCount++;
+                break;
+            default:
+                // undone shots stay in the history array, past its end
+                long shot = shots[shotCount];
+                fire(Coordinate.rowOf(shot), Coordinate.columnOf(shot));
+                journalLimit = limit;
+        }
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getStateHash()
+     */
+    @Override
+    public long getStateHash() {
+        return stateHash;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getLastSunkShip()
+     */
+    @Override
+    public IShip getLastSunkShip() {
+        return (countSinks == 0) ? null : sunk[countSinks - 1];
     }
 
     /*
@@ -67,7 +285,18 @@ public class Game implements IGame {
      */
     @Override
     public List<IPosition> getShots() {
-        return shots;
+        return new AbstractList<IPosition>() {
+            @Override
+            public IPosition get(int index) {
+                Objects.checkIndex(index, shotCount);
+                return new Position(Coordinate.unpack(shots[index]));
+            }
+
+            @Override
+            public int size() {
+                return shotCount;
+            }
+        };
     }
 
     /*
@@ -117,39 +346,85 @@ public class Game implements IGame {
      */
     @Override
     public int getRemainingShips() {
-        List<IShip> floatingShips = fleet.getFloatingShips();
-        return floatingShips.size();
+        return fleet.countFloatingShips();
     }
 
-    private boolean validShot(IPosition pos) {
-        return (pos.getRow() >= 0 && pos.getRow() <= Fleet.BOARD_SIZE && pos.getColumn() >= 0
-                && pos.getColumn() <= Fleet.BOARD_SIZE);
+    /**
+     * @return an estimate of the heap taken by the game, its shot history and
+     * journal, and its fleet, in bytes; a history shared with a fork is
+     * counted in both games, and the renderer is not counted
+     */
+    long footprint() {
+        long bytes = Footprint.object(8 * Footprint.REFERENCE + 7 * Integer.BYTES + 1 + Long.BYTES)
+                + Footprint.array(shots.length, Long.BYTES) + shotCells.footprint()
+                + Footprint.array(sunk.length, Footprint.REFERENCE);
+        if (journal != null)
+            bytes += Footprint.array(journal.length, 1) + Footprint.array(journalShips.length, Footprint.REFERENCE);
+        if (fleet instanceof Fleet)
+            bytes += ((Fleet) fleet).footprint();
+        return bytes;
     }
 
-    private boolean repeatedShot(IPosition pos) {
-        for (int i = 0; i < shots.size(); i++)
-            if (shots.get(i).equals(pos))
-                return true;
-        return false;
+    private boolean validShot(int row, int column) {
+        return rules.isInside(row, column);
     }
 
+    /**
+     * Appends a valid, new shot to the history and marks its cell as fired
+     */
+    private void recordShot(int row, int column) {
+        ownShots();
+        if (shotCount == shots.length)
+            shots = Arrays.copyOf(shots, shots.length * 2);
+        shots[shotCount++] = Coordinate.pack(row, column);
+        shotCells.set(row, column);
+    }
 
-    public void printBoard(List<IPosition> positions, Character marker) {
-        char[][] map = new char[Fleet.BOARD_SIZE][Fleet.BOARD_SIZE];
+    /**
+     * Removes the last shot from the history and marks its cell as not fired
+     */
+    private void unrecordShot(int row, int column) {
+        ownShots();
+        shotCount--;
+        shotCells.remove(row, column);
+    }
+
+    /**
+     * Copies the shot history if it is still shared with a fork
+     */
+    private void ownShots() {
+        if (sharedShots) {
+            shots = Arrays.copyOf(shots, Math.max(shots.length, shotCount + 1));
+            shotCells = shotCells.copy();
+            sharedShots = false;
+        }
+    }
 
-        for (int r = 0; r < Fleet.BOARD_SIZE; r++)
-            for (int c = 0; c < Fleet.BOARD_SIZE; c++)
-                map[r][c] = '.';
 
-        for (IPosition pos : positions)
-            map[pos.getRow()][pos.getColumn()] = marker;
+    /**
+     * @param renderer The renderer boards are printed with, e.g. one in diff mode
+     *                 for a terminal watching the game; by default boards are
+     *                 fully printed to System.out
+     */
+    public void setRenderer(BoardRenderer renderer) {
+        this.renderer = renderer;
+    }
 
-        for (int row = 0; row < Fleet.BOARD_SIZE; row++) {
-            for (int col = 0; col < Fleet.BOARD_SIZE; col++)
-                System.out.print(map[row][col]);
-            System.out.println();
-        }
+    private BoardRenderer renderer() {
+        if (renderer == null)
+            renderer = new BoardRenderer(rules.getBoardSize(), System.out, false);
+        renderer.begin();
+        return renderer;
+    }
 
+    /**
+     * Prints the board with the given positions marked
+     */
+    public void printBoard(List<IPosition> positions, Character marker) {
+        BoardRenderer r = renderer();
+        for (IPosition pos : positions)
+            r.mark(pos.getRow(), pos.getColumn(), marker);
+        r.render();
     }
 
 
@@ -157,7 +432,10 @@ public class Game implements IGame {
      * Prints the board showing valid shots that have been fired
      */
     public void printValidShots() {
-        printBoard(getShots(), 'X');
+        BoardRenderer r = renderer();
+        for (int i = 0; i < shotCount; i++)
+            r.mark(Coordinate.rowOf(shots[i]), Coordinate.columnOf(shots[i]), 'X');
+        r.render();
     }
 
 
@@ -165,12 +443,11 @@ public class Game implements IGame {
      * Prints the board showing the fleet
      */
     public void printFleet() {
-        List<IPosition> shipPositions = new ArrayList<IPosition>();
-
+        BoardRenderer r = renderer();
         for (IShip s : fleet.getShips())
-            shipPositions.addAll(s.getPositions());
-
-        printBoard(shipPositions, '#');
+            for (IPosition pos : s.getPositions())
+                r.mark(pos.getRow(), pos.getColumn(), '#');
+        r.render();
     }
 
 }
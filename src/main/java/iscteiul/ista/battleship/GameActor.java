@@ -0,0 +1,260 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * A game driven by messages instead of locks. Every command to the game is
+ * queued in its mailbox and run, one at a time and in order, by a drain task on
+ * an executor, so the game, its fleet and its ships are only ever touched by
+ * one thread at a time and need no synchronization. Thousands of actors can
+ * share a small pool: an actor only takes a pool thread while it has messages,
+ * and gives it back after a batch of them so that busy games do not starve the
+ * others.
+ * <p>
+ * The mailbox is bounded: a sender waits while it is full, which slows down
+ * producers that outpace the game. Each message has a future that completes
+ * with its reply once the game has run it. If the executor rejects a drain
+ * task, the messages waiting in the mailbox fail with its exception, and the
+ * next message tries the executor again.
+ * <p>
+ * The actor plays on its own copy of the fleet, so no caller ever shares the
+ * ships its thread writes to.
+ * <p>
+ * The messages are the commands of the interactive game (see Tasks): rajada
+ * (volley), ver (printValidShots), mapa (printFleet), estado (printStatus) and
+ * desisto (giveUp); nova is a new actor.
+ */
+public final class GameActor {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final int BATCH = 64;
+
+    private final IFleet fleet;
+    private final Game game;
+    private final Executor executor;
+    private final BlockingQueue<Message<?>> mailbox;
+    private final AtomicBoolean scheduled;
+    // set by the giveUp message when it is run
+    private volatile boolean over;
+
+    /**
+     * A command and the future of its reply
+     */
+    private static final class Message<T> {
+        private final Function<? super Game, T> command;
+        private final CompletableFuture<T> reply;
+
+        private Message(Function<? super Game, T> command) {
+            this.command = command;
+            reply = new CompletableFuture<>();
+        }
+
+        private void run(Game game) {
+            try {
+                reply.complete(command.apply(game));
+            } catch (RuntimeException | Error e) {
+                reply.completeExceptionally(e);
+            }
+        }
+
+        private void reject() {
+            reply.completeExceptionally(new IllegalStateException("ERROR! the game is over"));
+        }
+    }
+
+    /**
+     * The outcome of a game when it was given up; it does not change afterwards
+     *
+     * @param shots     Number of valid shots fired
+     * @param hits      Number of shots that hit a ship
+     * @param invalid   Number of shots outside the board
+     * @param repeated  Number of shots at cells already fired at
+     * @param sunk      Number of ships sunk
+     * @param remaining Number of ships still floating
+     */
+    public record Summary(int shots, int hits, int invalid, int repeated, int sunk, int remaining) {
+        static Summary of(IGame game) {
+            return new Summary(game.getShots().size(), game.getHits(), game.getInvalidShots(),
+                    game.getRepeatedShots(), game.getSunkShips(), game.getRemainingShips());
+        }
+    }
+
+    /**
+     * @param fleet    The fleet under attack; the actor plays on a copy of it
+     * @param executor Where the messages are run
+     */
+    public GameActor(IFleet fleet, Executor executor) {
+        this(fleet, executor, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param fleet    The fleet under attack; the actor plays on a copy of it
+     * @param executor Where the messages are run
+     * @param capacity Number of messages the mailbox holds before senders wait
+     */
+    public GameActor(IFleet fleet, Executor executor, int capacity) {
+        assert fleet != null && executor != null;
+
+        if (capacity <= 0)
+            throw new IllegalArgumentException("ERROR! invalid mailbox capacity " + capacity);
+        this.fleet = fleet.copy();
+        this.executor = executor;
+        game = new Game(this.fleet);
+        mailbox = new ArrayBlockingQueue<>(capacity);
+        scheduled = new AtomicBoolean();
+        over = false;
+    }
+
+    /**
+     * Fires one shot
+     *
+     * @return the outcome of the shot, as IGame#fire(int, int)
+     */
+    public CompletableFuture<Integer> fire(int row, int column) {
+        return ask(g -> g.fire(row, column));
+    }
+
+    /**
+     * rajada: fires a volley of shots
+     *
+     * @param shots The cells fired at, packed as in Coordinate#pack
+     * @return the outcome of each shot
+     */
+    public CompletableFuture<int[]> volley(long... shots) {
+        long[] cells = shots.clone();
+        return ask(g -> {
+            int[] results = new int[cells.length];
+            for (int i = 0; i < cells.length; i++)
+                results[i] = g.fire(Coordinate.rowOf(cells[i]), Coordinate.columnOf(cells[i]));
+            return results;
+        });
+    }
+
+    /**
+     * ver: prints the valid shots fired so far
+     */
+    public CompletableFuture<Void> printValidShots() {
+        return ask(g -> {
+            g.printValidShots();
+            return null;
+        });
+    }
+
+    /**
+     * mapa: prints the fleet
+     */
+    public CompletableFuture<Void> printFleet() {
+        return ask(g -> {
+            g.printFleet();
+            return null;
+        });
+    }
+
+    /**
+     * estado: prints the status of the fleet
+     */
+    public CompletableFuture<Void> printStatus() {
+        return ask(g -> {
+            fleet.printStatus();
+            return null;
+        });
+    }
+
+    /**
+     * desisto: ends the game. The game ends when this message is run, so the
+     * messages queued before it are still run, and every message queued after
+     * it fails, whatever thread sent it
+     *
+     * @return the summary of the game, once every message before this one has
+     * been run
+     */
+    public CompletableFuture<Summary> giveUp() {
+        return ask(g -> {
+            over = true;
+            return Summary.of(g);
+        });
+    }
+
+    /**
+     * Runs any query or command on the game, in turn with the other messages
+     *
+     * @param command What to do with the game; it must not keep the game
+     * @return the future of what the command returns
+     */
+    public <T> CompletableFuture<T> ask(Function<? super Game, T> command) {
+        Message<T> message = new Message<>(command);
+        if (over) {
+            message.reject();
+            return message.reply;
+        }
+        try {
+            mailbox.put(message);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            message.reply.completeExceptionally(e);
+            return message.reply;
+        }
+        schedule();
+        return message.reply;
+    }
+
+    /**
+     * @return the number of messages waiting in the mailbox
+     */
+    public int getPending() {
+        return mailbox.size();
+    }
+
+    /**
+     * Starts a drain unless one is scheduled. If the executor rejects it, the
+     * messages in the mailbox fail, and the flag is cleared so that later
+     * messages try again instead of waiting for a drain that never runs
+     */
+    private void schedule() {
+        if (!scheduled.compareAndSet(false, true))
+            return;
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            Message<?> message;
+            while ((message = mailbox.poll()) != null)
+                message.reply.completeExceptionally(e);
+            scheduled.set(false);
+            if (!mailbox.isEmpty())
+                schedule();
+        }
+    }
+
+    /**
+     * Runs a batch of messages, and schedules another drain if more arrived.
+     * The scheduled flag makes sure only one drain runs at a time, and orders
+     * each drain after the previous one. Once the game is over, messages that
+     * got into the mailbox are rejected instead of run
+     */
+    private void drain() {
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                Message<?> message = mailbox.poll();
+                if (message == null)
+                    break;
+                if (over)
+                    message.reject();
+                else
+                    message.run(game);
+            }
+        } finally {
+            scheduled.set(false);
+            if (!mailbox.isEmpty())
+                schedule();
+        }
+    }
+}
@@ -0,0 +1,305 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+
+/**
+ * The live games of a game service, created, looked up and retired by id.
+ * <p>
+ * Games are spread by id over a power of two of shards. Each shard maps ids to
+ * games with an open-addressing table of primitive ids, so looking a game up
+ * neither boxes its id nor allocates, and a live game costs the registry 24 to
+ * 48 bytes. Lookups are optimistic reads of their shard and only take its read
+ * lock if a game was created or retired in that shard meanwhile; creating and
+ * retiring a game locks its shard only. Shots and queries run under the lock of
+ * their game alone (its monitor), so threads playing different games never
+ * wait for each other.
+ * <p>
+ * The heap taken by the games is estimated per game (see getFootprint(long)),
+ * so that a service can decide how many games it can keep alive.
+ */
+public final class GameRegistry {
+    private static final int MIN_TABLE = 16;
+    private static final long FREE = 0;
+    private static final long RETIRED = -1;
+
+    private final Shard[] shards;
+    private final int shardMask;
+    private final AtomicLong nextId;
+
+    /**
+     * A registry with four shards per core
+     */
+    public GameRegistry() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param shards Number of shards, rounded up to a power of two
+     */
+    public GameRegistry(int shards) {
+        if (shards <= 0 || shards > 1 << 16)
+            throw new IllegalArgumentException("ERROR! invalid number of shards " + shards);
+
+        int n = Integer.highestOneBit(shards);
+        if (n < shards)
+            n <<= 1;
+        this.shards = new Shard[n];
+        for (int i = 0; i < n; i++)
+            this.shards[i] = new Shard();
+        shardMask = n - 1;
+        nextId = new AtomicLong(1);
+    }
+
+    /**
+     * Starts a new game on a copy of a fleet, so the caller can neither see nor
+     * change the fleet the game is played on. Live games are not journaled:
+     * their shots cannot be undone, and a game takes no more memory however
+     * many invalid or repeated shots are fired at it
+     *
+     * @param fleet The fleet under attack
+     * @return the id of the game, a positive number never reused
+     */
+    public long create(IFleet fleet) {
+        assert fleet != null;
+
+        long id = nextId.getAndIncrement();
+        shardOf(id).put(id, new Game(fleet.copy(), false));
+        return id;
+    }
+
+    /**
+     * @param id The id of a game
+     * @return the game, or null if there is no live game with that id. Callers
+     * that use it while other threads may fire at it must synchronize on it
+     */
+    public Game get(long id) {
+        return (id <= 0) ? null : shardOf(id).get(id);
+    }
+
+    /**
+     * Fires a shot at a game, as IGame#fire(int, int)
+     *
+     * @param id     The id of the game
+     * @param row    Row of the cell
+     * @param column Column of the cell
+     * @return the outcome of the shot
+     */
+    public int fire(long id, int row, int column) {
+        Game game = require(id);
+        synchronized (game) {
+            return game.fire(row, column);
+        }
+    }
+
+    /**
+     * Runs a query, or any other command, on a game while no other thread uses it
+     *
+     * @param id    The id of the game
+     * @param query What to do with the game
+     * @return what the query returns
+     */
+    public <T> T query(long id, Function<? super Game, T> query) {
+        Game game = require(id);
+        synchronized (game) {
+            return query.apply(game);
+        }
+    }
+
+    /**
+     * Removes a game from the registry
+     *
+     * @param id The id of the game
+     * @return the game, or null if there was no live game with that id
+     */
+    public Game retire(long id) {
+        return (id <= 0) ? null : shardOf(id).remove(id);
+    }
+
+    /**
+     * @return the number of live games
+     */
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards)
+            size += shard.size();
+        return size;
+    }
+
+    /**
+     * @param id The id of a game
+     * @return an estimate of the heap taken by the game and its fleet, in bytes
+     */
+    public long getFootprint(long id) {
+        return query(id, Game::footprint);
+    }
+
+    /**
+     * @return an estimate of the heap taken by the live games and the registry,
+     * in bytes; games are measured one at a time, so the total is not a
+     * snapshot while games are being played
+     */
+    public long getFootprint() {
+        long bytes = Footprint.array(shards.length, Footprint.REFERENCE);
+        for (Shard shard : shards)
+            bytes += shard.footprint();
+        return bytes;
+    }
+
+    private Game require(long id) {
+        Game game = get(id);
+        if (game == null)
+            throw new IllegalArgumentException("ERROR! no live game " + id);
+        return game;
+    }
+
+    private Shard shardOf(long id) {
+        return shards[(int) id & shardMask];
+    }
+
+    /**
+     * The ids of a shard and their games, in two arrays of the same length
+     */
+    private static final class Table {
+        private final long[] ids;
+        private final Game[] games;
+
+        private Table(int capacity) {
+            ids = new long[capacity];
+            games = new Game[capacity];
+        }
+
+        private int slotOf(long id) {
+            return (int) Hashing.mix64(id) & (ids.length - 1);
+        }
+
+        private Game find(long id) {
+            for (int i = slotOf(id), n = 0; n < ids.length; i = (i + 1) & (ids.length - 1), n++) {
+                if (ids[i] == id)
+                    return games[i];
+                if (ids[i] == FREE)
+                    return null;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A part of the registry, with its own lock. Tables are kept at most half
+     * full, counting retired slots, so probes are short and always end, and
+     * shrink when most of their games are retired
+     */
+    private static final class Shard {
+        private final StampedLock lock = new StampedLock();
+        private Table table = new Table(MIN_TABLE);
+        private int count;
+        private int used;
+
+        private Game get(long id) {
+            long stamp = lock.tryOptimisticRead();
+            Game game = table.find(id);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    game = table.find(id);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return game;
+        }
+
+        private void put(long id, Game game) {
+            long stamp = lock.writeLock();
+            try {
+                if (2 * (used + 1) > table.ids.length)
+                    rehash();
+                int i = table.slotOf(id);
+                while (table.ids[i] != FREE)
+                    i = (i + 1) & (table.ids.length - 1);
+                table.games[i] = game;
+                table.ids[i] = id;
+                count++;
+                used++;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private Game remove(long id) {
+            long stamp = lock.writeLock();
+            try {
+                Table t = table;
+                for (int i = t.slotOf(id); t.ids[i] != FREE; i = (i + 1) & (t.ids.length - 1)) {
+                    if (t.ids[i] == id) {
+                        Game game = t.games[i];
+                        t.ids[i] = RETIRED;
+                        t.games[i] = null;
+                        count--;
+                        if (t.ids.length > MIN_TABLE && 8 * count < t.ids.length)
+                            rehash();
+                        return game;
+                    }
+                }
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Moves the live games to a new table, dropping the retired slots and
+         * growing or shrinking the table to twice as many slots as games
+         */
+        private void rehash() {
+            int capacity = MIN_TABLE;
+            while (capacity < 4 * (count + 1))
+                capacity <<= 1;
+            Table t = new Table(capacity);
+            for (int i = 0; i < table.ids.length; i++) {
+                long id = table.ids[i];
+                if (id != FREE && id != RETIRED) {
+                    int j = t.slotOf(id);
+                    while (t.ids[j] != FREE)
+                        j = (j + 1) & (capacity - 1);
+                    t.ids[j] = id;
+                    t.games[j] = table.games[i];
+                }
+            }
+            table = t;
+            used = count;
+        }
+
+        private int size() {
+            long stamp = lock.readLock();
+            try {
+                return count;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private long footprint() {
+            Game[] games;
+            long stamp = lock.readLock();
+            try {
+                games = table.games.clone();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            long bytes = Footprint.object(3 * Footprint.REFERENCE + 2 * Integer.BYTES)
+                    + Footprint.object(2 * Footprint.REFERENCE) + Footprint.array(games.length, Long.BYTES)
+                    + Footprint.array(games.length, Footprint.REFERENCE);
+            for (Game game : games)
+                if (game != null)
+                    synchronized (game) {
+                        bytes += game.footprint();
+                    }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * The rules a fleet and its game are played with: the number of rows (and
+ * columns) of the board and the fleet size limit. The standard game uses
+ * IFleet.BOARD_SIZE and IFleet.FLEET_SIZE; variants may use much larger boards,
+ * in which case cells are kept in sparse storage (see CellGrid).
+ */
+public final class GameRules {
+    public static final GameRules STANDARD = new GameRules(IFleet.BOARD_SIZE, IFleet.FLEET_SIZE);
+
+    private final int boardSize;
+    private final int fleetSize;
+
+    /**
+     * @param boardSize Number of rows and columns of the board
+     * @param fleetSize Fleet size limit (see Fleet#addShip)
+     */
+    public GameRules(int boardSize, int fleetSize) {
+        if (boardSize <= 0)
+            throw new IllegalArgumentException("ERROR! invalid board size " + boardSize);
+        if (fleetSize < 0)
+            throw new IllegalArgumentException("ERROR! invalid fleet size " + fleetSize);
+
+        this.boardSize = boardSize;
+        this.fleetSize = fleetSize;
+    }
+
+    /**
+     * @return the number of rows and columns of the board
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * @return the fleet size limit
+     */
+    public int getFleetSize() {
+        return fleetSize;
+    }
+
+    /**
+     * @param row    Row of the cell
+     * @param column Column of the cell
+     * @return true if the cell belongs to the board
+     */
+    public boolean isInside(int row, int column) {
+        return row >= 0 && row < boardSize && column >= 0 && column < boardSize;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + boardSize + "x" + boardSize + " " + fleetSize + "]";
+    }
+}
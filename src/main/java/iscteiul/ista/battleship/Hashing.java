@@ -0,0 +1,24 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * Bit mixing shared by everything that spreads keys over slots: the seeds of
+ * generated fleets, Zobrist keys, registry slots, the claim stripes of
+ * concurrent games and the partitions of the shot ring buffer.
+ */
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * The SplitMix64 finalizer: a bijective mix of the bits of z
+     */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
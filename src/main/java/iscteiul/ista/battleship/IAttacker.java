@@ -0,0 +1,26 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * A shooting strategy: it chooses where to fire and learns from the outcome of
+ * each shot, as reported by IGame#fire(int, int).
+ */
+public interface IAttacker {
+
+    /**
+     * @return the cell to fire at next, packed as in Coordinate#pack
+     */
+    long nextShot();
+
+    /**
+     * Tells the attacker the outcome of a shot
+     *
+     * @param row    Row of the cell fired at
+     * @param column Column of the cell fired at
+     * @param result One of the IGame.SHOT_ codes
+     * @param sunk   The ship that was sunk, if result is IGame.SHOT_SUNK
+     */
+    void update(int row, int column, int result, IShip sunk);
+}
@@ -0,0 +1,63 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Scanner;
+
+/**
+ * The tokens of a command script, as Tasks reads them: a ship kind or other
+ * word, a bearing character or an int. CommandTokenizer reads them without
+ * building Strings; of(Scanner) adapts a Scanner.
+ */
+interface ICommandSource {
+
+    /**
+     * @param words The words expected
+     * @return the element of words the next token is equal to, or null if none
+     * @throws java.util.NoSuchElementException if the input is exhausted
+     */
+    String nextWord(String[] words);
+
+    /**
+     * @return the first character of the next token
+     * @throws java.util.NoSuchElementException if the input is exhausted
+     */
+    char nextChar();
+
+    /**
+     * @return the next token, parsed as an int
+     * @throws java.util.NoSuchElementException   if the input is exhausted
+     * @throws java.util.InputMismatchException if the token is not an int
+     */
+    int nextInt();
+
+    /**
+     * @param in The scanner to read from
+     * @return the tokens of the scanner
+     */
+    static ICommandSource of(Scanner in) {
+        assert in != null;
+
+        return new ICommandSource() {
+            @Override
+            public String nextWord(String[] words) {
+                String token = in.next();
+                for (String word : words)
+                    if (word.equals(token))
+                        return word;
+                return null;
+            }
+
+            @Override
+            public char nextChar() {
+                return in.next().charAt(0);
+            }
+
+            @Override
+            public int nextInt() {
+                return in.nextInt();
+            }
+        };
+    }
+}
@@ -3,12 +3,15 @@
  */
 package iscteiul.ista.battleship;
 
+import java.io.PrintStream;
 import java.util.List;
 
 public interface IFleet {
     Integer BOARD_SIZE = 10;
     Integer FLEET_SIZE = 10;
 
+    GameRules getRules();
+
     List<IShip> getShips();
 
     boolean addShip(IShip s);
@@ -17,7 +20,18 @@ public interface IFleet {
 
     List<IShip> getFloatingShips();
 
+    int countFloatingShips();
+
     IShip shipAt(IPosition pos);
 
+    IShip shipAt(int row, int column);
+
     void printStatus();
+
+    /**
+     * Same as printStatus(), printing to the given stream
+     */
+    void printStatus(PrintStream out);
+
+    IFleet copy();
 }
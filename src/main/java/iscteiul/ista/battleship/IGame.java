@@ -6,8 +6,28 @@ package iscteiul.ista.battleship;
 import java.util.List;
 
 public interface IGame {
+    /**
+     * Outcomes of {@link #fire(int, int)}
+     */
+    int SHOT_INVALID = 0;
+    int SHOT_REPEATED = 1;
+    int SHOT_MISS = 2;
+    int SHOT_HIT = 3;
+    int SHOT_SUNK = 4;
+
     IShip fire(IPosition pos);
 
+    int fire(int row, int column);
+
+    IShip getLastSunkShip();
+
+    /**
+     * @return the Zobrist hash of the outcomes of the valid shots fired so far:
+     * the cells missed, the cells hit and the ships sunk. It does not depend on
+     * the order of the shots, nor on invalid or repeated shots
+     */
+    long getStateHash();
+
     List<IPosition> getShots();
 
     int getRepeatedShots();
@@ -11,8 +11,12 @@ public interface IPosition {
 
     int getColumn();
 
+    Coordinate getCoordinate();
+
     boolean equals(Object other);
 
+    int hashCode();
+
     boolean isAdjacentTo(IPosition other);
 
     void occupy();
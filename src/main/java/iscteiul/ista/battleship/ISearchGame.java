@@ -0,0 +1,30 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * A game that a search can explore: it can be copied, and its shots can be
+ * taken back and fired again, so that moves are made and unmade on one game
+ */
+public interface ISearchGame extends IGame {
+    /**
+     * @return an independent copy of the game in progress
+     */
+    ISearchGame fork();
+
+    /**
+     * Takes back the last shot fired, restoring the game exactly as it was
+     * before it, in constant time
+     *
+     * @return false if there is no shot to take back
+     */
+    boolean undo();
+
+    /**
+     * Fires again the last shot taken back by undo(), if no shot was fired since
+     *
+     * @return false if there is no shot to fire again
+     */
+    boolean redo();
+}
@@ -18,6 +18,8 @@ public interface IShip {
 
     boolean stillFloating();
 
+    BoundingBox getBoundingBox();
+
     int getTopMostPos();
 
     int getBottomMostPos();
@@ -28,9 +30,21 @@ public interface IShip {
 
     boolean occupies(IPosition pos);
 
+    boolean occupies(int row, int column);
+
     boolean tooCloseTo(IShip other);
 
     boolean tooCloseTo(IPosition pos);
 
     void shoot(IPosition pos);
+
+    void shoot(int row, int column);
+
+    /**
+     * Takes back a shot at one of the ship's positions, so that a sunk ship
+     * floats again; used to undo shots
+     */
+    void unshoot(int row, int column);
+
+    IShip copy();
 }
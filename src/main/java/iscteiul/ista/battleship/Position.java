@@ -3,11 +3,12 @@
  */
 package iscteiul.ista.battleship;
 
-import java.util.Objects;
-
+/**
+ * A board position: an immutable coordinate plus the mutable state of the cell
+ * (occupied, hit). Equality and hashing depend on the coordinate only.
+ */
 public class Position implements IPosition {
-    private int row;
-    private int column;
+    private final Coordinate coordinate;
     private boolean isOccupied;
     private boolean isHit;
 
@@ -15,8 +16,16 @@ public class Position implements IPosition {
      *
      */
     public Position(int row, int column) {
-        this.row = row;
-        this.column = column;
+        this(new Coordinate(row, column));
+    }
+
+    /**
+     * @param coordinate The coordinate of the position
+     */
+    public Position(Coordinate coordinate) {
+        assert coordinate != null;
+
+        this.coordinate = coordinate;
         this.isOccupied = false;
         this.isHit = false;
     }
@@ -28,7 +37,7 @@ public class Position implements IPosition {
      */
     @Override
     public int getRow() {
-        return row;
+        return coordinate.row();
     }
 
     /*
@@ -38,13 +47,27 @@ public class Position implements IPosition {
      */
     @Override
     public int getColumn() {
-        return column;
+        return coordinate.column();
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IPosition#getCoordinate()
+     */
+    @Override
+    public Coordinate getCoordinate() {
+        return coordinate;
+    }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IPosition#hashCode()
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(column, isHit, isOccupied, row);
+        return coordinate.hashCode();
     }
 
     /*
@@ -116,7 +139,7 @@ public class Position implements IPosition {
 
     @Override
     public String toString() {
-        return ("Linha = " + row + " Coluna = " + column);
+        return ("Linha = " + getRow() + " Coluna = " + getColumn());
     }
 
 }
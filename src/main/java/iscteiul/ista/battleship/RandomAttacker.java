@@ -0,0 +1,78 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.SplittableRandom;
+
+/**
+ * An attacker that fires at random cells, never twice at the same one. It is
+ * the baseline other strategies are compared to (see Tournament).
+ * <p>
+ * On boards with up to CellGrid.DENSE_LIMIT cells the order of the shots is a
+ * random permutation of the cells, drawn one shot at a time (Fisher-Yates); on
+ * larger boards random cells are drawn until one that has not been fired at.
+ */
+public class RandomAttacker implements IAttacker {
+    private final int size;
+    private final SplittableRandom random;
+    private final int[] cells;
+    private int remaining;
+    private final CellGrid fired;
+
+    /**
+     * @param rules  The rules of the game under attack
+     * @param random The source of randomness
+     */
+    public RandomAttacker(GameRules rules, SplittableRandom random) {
+        size = rules.getBoardSize();
+        this.random = random;
+        if ((long) size * size <= CellGrid.DENSE_LIMIT) {
+            cells = new int[size * size];
+            for (int i = 0; i < cells.length; i++)
+                cells[i] = i;
+            remaining = cells.length;
+            fired = null;
+        } else {
+            cells = null;
+            fired = CellGrid.create(size);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IAttacker#nextShot()
+     */
+    @Override
+    public long nextShot() {
+        if (cells != null) {
+            if (remaining == 0)
+                throw new IllegalStateException("ERROR! no cell left to fire at");
+            int i = random.nextInt(remaining--);
+            int cell = cells[i];
+            cells[i] = cells[remaining];
+            cells[remaining] = cell;
+            return Coordinate.pack(cell / size, cell % size);
+        }
+
+        int row;
+        int column;
+        do {
+            row = random.nextInt(size);
+            column = random.nextInt(size);
+        } while (fired.contains(row, column));
+        fired.set(row, column);
+        return Coordinate.pack(row, column);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IAttacker#update(int, int, int, battleship.IShip)
+     */
+    @Override
+    public void update(int row, int column, int result, IShip sunk) {
+        // shots are random whatever their outcome
+    }
+}
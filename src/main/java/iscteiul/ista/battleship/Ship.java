@@ -3,11 +3,13 @@
  */
 package iscteiul.ista.battleship;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 
-public abstract class Ship implements IShip {
+public abstract class Ship implements IShip, Cloneable {
 
     private static final String GALEAO = "galeao";
     private static final String FRAGATA = "fragata";
@@ -46,9 +48,24 @@ public abstract class Ship implements IShip {
     }
 
 
+    private static final int MAX_CELLS = Long.SIZE;
+
     private String category;
     private Compass bearing;
     private IPosition pos;
+    private ShipShape shape;
+    private BoundingBox box;
+    private long[] cells;
+    private int cellCount;
+    private long hitMask;
+    private long occupiedMask;
+    private Fleet fleet;
+
+    /**
+     * The positions of the ship. They are views over the ship geometry and its
+     * hit mask, created on demand; ships that are not built from a shape may add
+     * their positions to this list while being built
+     */
     protected List<IPosition> positions;
 
 
@@ -64,7 +81,33 @@ public abstract class Ship implements IShip {
         this.category = category;
         this.bearing = bearing;
         this.pos = pos;
-        positions = new ArrayList<>();
+        hitMask = 0;
+        occupiedMask = 0;
+        positions = new Cells();
+    }
+
+    /**
+     * Sets the positions of the ship, taken from the shape of its kind and
+     * bearing, relative to the ship position. No position objects are kept:
+     * cells are derived from the shape and the ship position when needed
+     *
+     * @param shape The shape of the ship
+     */
+    protected void fill(ShipShape shape) {
+        assert shape != null;
+        assert cellCount == 0;
+
+        this.shape = shape;
+        box = new BoundingBox(pos.getRow() + shape.getTop(), pos.getRow() + shape.getBottom(),
+                pos.getColumn() + shape.getLeft(), pos.getColumn() + shape.getRight());
+    }
+
+    /**
+     * @return the shape the ship has been built from, or null if its positions
+     * were not taken from a shape
+     */
+    ShipShape getShape() {
+        return shape;
     }
 
     /*
@@ -111,10 +154,37 @@ public abstract class Ship implements IShip {
      */
     @Override
     public boolean stillFloating() {
-        for (int i = 0; i < getSize(); i++)
-            if (!getPositions().get(i).isHit())
-                return true;
-        return false;
+        return hitMask != fullMask();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IShip#getBoundingBox()
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        if (box == null)
+            box = computeBoundingBox();
+        return box;
+    }
+
+    /**
+     * Ships built from a shape get their box from it; any other ship has it
+     * computed from its positions the first time it is needed
+     */
+    private BoundingBox computeBoundingBox() {
+        int top = rowAt(0);
+        int bottom = top;
+        int left = columnAt(0);
+        int right = left;
+        for (int i = 1; i < cellCount(); i++) {
+            top = Math.min(top, rowAt(i));
+            bottom = Math.max(bottom, rowAt(i));
+            left = Math.min(left, columnAt(i));
+            right = Math.max(right, columnAt(i));
+        }
+        return new BoundingBox(top, bottom, left, right);
     }
 
     /*
@@ -124,11 +194,7 @@ public abstract class Ship implements IShip {
      */
     @Override
     public int getTopMostPos() {
-        int top = getPositions().get(0).getRow();
-        for (int i = 1; i < getSize(); i++)
-            if (getPositions().get(i).getRow() < top)
-                top = getPositions().get(i).getRow();
-        return top;
+        return getBoundingBox().getTop();
     }
 
     /*
@@ -138,11 +204,7 @@ public abstract class Ship implements IShip {
      */
     @Override
     public int getBottomMostPos() {
-        int bottom = getPositions().get(0).getRow();
-        for (int i = 1; i < getSize(); i++)
-            if (getPositions().get(i).getRow() > bottom)
-                bottom = getPositions().get(i).getRow();
-        return bottom;
+        return getBoundingBox().getBottom();
     }
 
     /*
@@ -152,11 +214,7 @@ public abstract class Ship implements IShip {
      */
     @Override
     public int getLeftMostPos() {
-        int left = getPositions().get(0).getColumn();
-        for (int i = 1; i < getSize(); i++)
-            if (getPositions().get(i).getColumn() < left)
-                left = getPositions().get(i).getColumn();
-        return left;
+        return getBoundingBox().getLeft();
     }
 
     /*
@@ -166,11 +224,7 @@ public abstract class Ship implements IShip {
      */
     @Override
     public int getRightMostPos() {
-        int right = getPositions().get(0).getColumn();
-        for (int i = 1; i < getSize(); i++)
-            if (getPositions().get(i).getColumn() > right)
-                right = getPositions().get(i).getColumn();
-        return right;
+        return getBoundingBox().getRight();
     }
 
     /*
@@ -182,10 +236,17 @@ public abstract class Ship implements IShip {
     public boolean occupies(IPosition pos) {
         assert pos != null;
 
-        for (int i = 0; i < getSize(); i++)
-            if (getPositions().get(i).equals(pos))
-                return true;
-        return false;
+        return indexOf(pos.getRow(), pos.getColumn()) >= 0;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IShip#occupies(int, int)
+     */
+    @Override
+    public boolean occupies(int row, int column) {
+        return indexOf(row, column) >= 0;
     }
 
     /*
@@ -212,8 +273,8 @@ public abstract class Ship implements IShip {
      */
     @Override
     public boolean tooCloseTo(IPosition pos) {
-        for (int i = 0; i < this.getSize(); i++)
-            if (getPositions().get(i).isAdjacentTo(pos))
+        for (int i = 0; i < cellCount(); i++)
+            if (Math.abs(rowAt(i) - pos.getRow()) <= 1 && Math.abs(columnAt(i) - pos.getColumn()) <= 1)
                 return true;
         return false;
     }
@@ -228,16 +289,242 @@ public abstract class Ship implements IShip {
     public void shoot(IPosition pos) {
         assert pos != null;
 
-        for (IPosition position : getPositions()) {
-            if (position.equals(pos))
-                position.shoot();
+        shoot(pos.getRow(), pos.getColumn());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IShip#shoot(int, int)
+     */
+    @Override
+    public void shoot(int row, int column) {
+        int i = indexOf(row, column);
+        if (i >= 0)
+            hit(i);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IShip#unshoot(int, int)
+     */
+    @Override
+    public void unshoot(int row, int column) {
+        int i = indexOf(row, column);
+        if (i >= 0)
+            unhit(i);
+    }
+
+    /**
+     * The copy shares the immutable geometry of the ship and has its own hit
+     * mask, so copying costs one small object. It does not belong to any fleet
+     * until it is added to one
+     *
+     * @return an independent copy of the ship, with the same hits
+     */
+    @Override
+    public Ship copy() {
+        try {
+            Ship copy = (Ship) super.clone();
+            copy.fleet = null;
+            copy.positions = copy.new Cells();
+            if (cells != null)
+                copy.cells = cells.clone();
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
         }
     }
 
+    /**
+     * @return an estimate of the heap taken by the ship, in bytes: the ship,
+     * its position, bounding box and positions view, and its cells if it has
+     * no shape; the shape and the category are shared
+     */
+    long footprint() {
+        long position = Footprint.object(Footprint.REFERENCE + 2) + Footprint.object(2 * Integer.BYTES);
+        return Footprint.object(8 * Footprint.REFERENCE + Integer.BYTES + 2 * Long.BYTES) + position
+                + Footprint.object(4 * Integer.BYTES) + Footprint.object(Footprint.REFERENCE)
+                + (cells == null ? 0 : Footprint.array(cells.length, Long.BYTES));
+    }
+
+    /**
+     * @param fleet The fleet this ship has been added to
+     */
+    void enlistIn(Fleet fleet) {
+        this.fleet = fleet;
+    }
+
+    /**
+     * Marks the i-th cell as hit, telling the fleet if that sinks the ship
+     */
+    private void hit(int i) {
+        long bit = 1L << i;
+        if ((hitMask & bit) == 0) {
+            hitMask |= bit;
+            if (hitMask == fullMask() && fleet != null)
+                fleet.shipSunk(this);
+        }
+    }
+
+    /**
+     * Clears the hit on the i-th cell, telling the fleet if that refloats the ship
+     */
+    private void unhit(int i) {
+        long bit = 1L << i;
+        if ((hitMask & bit) != 0) {
+            boolean sunk = hitMask == fullMask();
+            hitMask &= ~bit;
+            if (sunk && fleet != null)
+                fleet.shipRefloated(this);
+        }
+    }
+
+    private boolean isHit(int i) {
+        return (hitMask & (1L << i)) != 0;
+    }
+
+    private long fullMask() {
+        int n = cellCount();
+        return n == MAX_CELLS ? -1L : (1L << n) - 1;
+    }
+
+    private int cellCount() {
+        return shape != null ? shape.getSize() : cellCount;
+    }
+
+    private int rowAt(int i) {
+        return shape != null ? pos.getRow() + shape.getRowOffset(i) : Coordinate.rowOf(cells[i]);
+    }
+
+    private int columnAt(int i) {
+        return shape != null ? pos.getColumn() + shape.getColumnOffset(i) : Coordinate.columnOf(cells[i]);
+    }
+
+    /**
+     * @return the index of the cell of the ship at the given row and column, or
+     * -1 if the ship does not occupy it
+     */
+    private int indexOf(int row, int column) {
+        for (int i = 0; i < cellCount(); i++)
+            if (rowAt(i) == row && columnAt(i) == column)
+                return i;
+        return -1;
+    }
 
     @Override
     public String toString() {
         return "[" + category + " " + bearing + " " + pos + "]";
     }
 
+    /**
+     * The list of positions of the ship. Ships built from a shape cannot add
+     * positions; other ships append theirs (keeping any hit they already had)
+     * while being built
+     */
+    private final class Cells extends AbstractList<IPosition> {
+        @Override
+        public IPosition get(int index) {
+            Objects.checkIndex(index, size());
+            return new Cell(index);
+        }
+
+        @Override
+        public int size() {
+            return cellCount();
+        }
+
+        @Override
+        public void add(int index, IPosition position) {
+            if (shape != null || index != cellCount || cellCount == MAX_CELLS)
+                throw new UnsupportedOperationException("ERROR! ship positions can only be appended while building it");
+
+            if (cells == null)
+                cells = new long[4];
+            else if (cellCount == cells.length)
+                cells = Arrays.copyOf(cells, cellCount * 2);
+            cells[cellCount] = Coordinate.pack(position.getRow(), position.getColumn());
+            if (position.isHit())
+                hitMask |= 1L << cellCount;
+            if (position.isOccupied())
+                occupiedMask |= 1L << cellCount;
+            cellCount++;
+            box = null;
+        }
+    }
+
+    /**
+     * A position of the ship: its coordinates are derived from the ship
+     * geometry and its hit state is a bit of the ship hit mask
+     */
+    private final class Cell implements IPosition {
+        private final int index;
+
+        private Cell(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public int getRow() {
+            return rowAt(index);
+        }
+
+        @Override
+        public int getColumn() {
+            return columnAt(index);
+        }
+
+        @Override
+        public Coordinate getCoordinate() {
+            return new Coordinate(getRow(), getColumn());
+        }
+
+        @Override
+        public boolean isAdjacentTo(IPosition other) {
+            return (Math.abs(getRow() - other.getRow()) <= 1 && Math.abs(getColumn() - other.getColumn()) <= 1);
+        }
+
+        @Override
+        public void occupy() {
+            occupiedMask |= 1L << index;
+        }
+
+        @Override
+        public void shoot() {
+            hit(index);
+        }
+
+        @Override
+        public boolean isOccupied() {
+            return (occupiedMask & (1L << index)) != 0;
+        }
+
+        @Override
+        public boolean isHit() {
+            return Ship.this.isHit(index);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other)
+                return true;
+            if (other instanceof IPosition) {
+                IPosition p = (IPosition) other;
+                return getRow() == p.getRow() && getColumn() == p.getColumn();
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Coordinate.hash(getRow(), getColumn());
+        }
+
+        @Override
+        public String toString() {
+            return ("Linha = " + getRow() + " Coluna = " + getColumn());
+        }
+    }
+
 }
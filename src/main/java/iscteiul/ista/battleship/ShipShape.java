@@ -0,0 +1,230 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+
+/**
+ * The geometry of a kind of ship heading to a given bearing: the offsets of its
+ * cells relative to the ship position, its bounding-box extents and the halo of
+ * cells around it (the 8-neighbours of its cells that are not part of the ship).
+ * Shapes are immutable and computed once, so building, bounds checking and
+ * collision checking ships become table lookups.
+ */
+public final class ShipShape {
+
+    private static final String[] CATEGORIES = {"Barca", "Caravela", "Nau", "Fragata", "Galeao"};
+
+    /**
+     * Cell offsets {row, column} of every kind of ship (same order as
+     * CATEGORIES) for every bearing (same order as Compass); null where the
+     * bearing is not valid for the kind
+     */
+    private static final int[][][][] OFFSETS = {
+            { // Barca
+                    {{0, 0}},
+                    {{0, 0}},
+                    {{0, 0}},
+                    {{0, 0}},
+                    {{0, 0}}
+            },
+            { // Caravela
+                    {{0, 0}, {1, 0}},
+                    {{0, 0}, {1, 0}},
+                    {{0, 0}, {0, 1}},
+                    {{0, 0}, {0, 1}},
+                    null
+            },
+            { // Nau
+                    {{0, 0}, {1, 0}, {2, 0}},
+                    {{0, 0}, {1, 0}, {2, 0}},
+                    {{0, 0}, {0, 1}, {0, 2}},
+                    {{0, 0}, {0, 1}, {0, 2}},
+                    null
+            },
+            { // Fragata
+                    {{0, 0}, {1, 0}, {2, 0}, {3, 0}},
+                    {{0, 0}, {1, 0}, {2, 0}, {3, 0}},
+                    {{0, 0}, {0, 1}, {0, 2}, {0, 3}},
+                    {{0, 0}, {0, 1}, {0, 2}, {0, 3}},
+                    null
+            },
+            { // Galeao
+                    {{0, 0}, {0, 1}, {0, 2}, {1, 1}, {2, 1}},
+                    {{0, 0}, {1, 0}, {2, -1}, {2, 0}, {2, 1}},
+                    {{0, 0}, {1, -2}, {1, -1}, {1, 0}, {2, 0}},
+                    {{0, 0}, {1, 0}, {1, 1}, {1, 2}, {2, 0}},
+                    null
+            }
+    };
+
+    private static final ShipShape[][] SHAPES = new ShipShape[CATEGORIES.length][Compass.values().length];
+
+    static {
+        for (int kind = 0; kind < CATEGORIES.length; kind++)
+            for (int bearing = 0; bearing < Compass.values().length; bearing++)
+                if (OFFSETS[kind][bearing] != null)
+                    SHAPES[kind][bearing] = new ShipShape(OFFSETS[kind][bearing]);
+    }
+
+    /**
+     * @param category The category of the ship (e.g. "Galeao")
+     * @param bearing  The bearing of the ship
+     * @return The shape of that kind of ship for that bearing, or null if there is
+     * no such kind of ship or it cannot head to that bearing
+     */
+    public static ShipShape of(String category, Compass bearing) {
+        int kind = indexOf(category);
+        if (kind < 0)
+            return null;
+        return SHAPES[kind][bearing.ordinal()];
+    }
+
+    private static int indexOf(String category) {
+        for (int kind = 0; kind < CATEGORIES.length; kind++)
+            if (CATEGORIES[kind].equals(category))
+                return kind;
+        return -1;
+    }
+
+    // -----------------------------------------------------
+
+    private final int[] rows;
+    private final int[] columns;
+    private final int top;
+    private final int bottom;
+    private final int left;
+    private final int right;
+    private final int[] haloRows;
+    private final int[] haloColumns;
+
+    private ShipShape(int[][] offsets) {
+        rows = new int[offsets.length];
+        columns = new int[offsets.length];
+        int t = 0, b = 0, l = 0, r = 0;
+        for (int i = 0; i < offsets.length; i++) {
+            rows[i] = offsets[i][0];
+            columns[i] = offsets[i][1];
+            t = Math.min(t, rows[i]);
+            b = Math.max(b, rows[i]);
+            l = Math.min(l, columns[i]);
+            r = Math.max(r, columns[i]);
+        }
+        top = t;
+        bottom = b;
+        left = l;
+        right = r;
+
+        int[] hr = new int[(b - t + 3) * (r - l + 3)];
+        int[] hc = new int[hr.length];
+        int n = 0;
+        for (int row = t - 1; row <= b + 1; row++)
+            for (int col = l - 1; col <= r + 1; col++)
+                if (!contains(row, col) && touches(row, col)) {
+                    hr[n] = row;
+                    hc[n] = col;
+                    n++;
+                }
+        haloRows = Arrays.copyOf(hr, n);
+        haloColumns = Arrays.copyOf(hc, n);
+    }
+
+    private boolean contains(int row, int column) {
+        for (int i = 0; i < rows.length; i++)
+            if (rows[i] == row && columns[i] == column)
+                return true;
+        return false;
+    }
+
+    private boolean touches(int row, int column) {
+        for (int i = 0; i < rows.length; i++)
+            if (Math.abs(rows[i] - row) <= 1 && Math.abs(columns[i] - column) <= 1)
+                return true;
+        return false;
+    }
+
+    /**
+     * @return the number of cells of the shape
+     */
+    public int getSize() {
+        return rows.length;
+    }
+
+    /**
+     * @param i Index of the cell, from 0 to getSize() - 1
+     * @return the row offset of the i-th cell
+     */
+    public int getRowOffset(int i) {
+        return rows[i];
+    }
+
+    /**
+     * @param i Index of the cell, from 0 to getSize() - 1
+     * @return the column offset of the i-th cell
+     */
+    public int getColumnOffset(int i) {
+        return columns[i];
+    }
+
+    /**
+     * @return the offset of the topmost row of the shape
+     */
+    public int getTop() {
+        return top;
+    }
+
+    /**
+     * @return the offset of the bottommost row of the shape
+     */
+    public int getBottom() {
+        return bottom;
+    }
+
+    /**
+     * @return the offset of the leftmost column of the shape
+     */
+    public int getLeft() {
+        return left;
+    }
+
+    /**
+     * @return the offset of the rightmost column of the shape
+     */
+    public int getRight() {
+        return right;
+    }
+
+    /**
+     * @return the number of cells around the shape that touch it
+     */
+    public int getHaloSize() {
+        return haloRows.length;
+    }
+
+    /**
+     * @param i Index of the halo cell, from 0 to getHaloSize() - 1
+     * @return the row offset of the i-th halo cell
+     */
+    public int getHaloRowOffset(int i) {
+        return haloRows[i];
+    }
+
+    /**
+     * @param i Index of the halo cell, from 0 to getHaloSize() - 1
+     * @return the column offset of the i-th halo cell
+     */
+    public int getHaloColumnOffset(int i) {
+        return haloColumns[i];
+    }
+
+    /**
+     * @param row       Row of the ship position
+     * @param column    Column of the ship position
+     * @param boardSize Number of rows and columns of the board
+     * @return true if a ship with this shape at that position lies inside the board
+     */
+    public boolean fits(int row, int column, int boardSize) {
+        return row + top >= 0 && row + bottom < boardSize && column + left >= 0 && column + right < boardSize;
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+
+/**
+ * The distribution of the number of shots needed to win a set of games. It is
+ * not thread-safe: each thread fills its own histogram, and histograms are then
+ * merged (see Tournament).
+ */
+public final class ShotHistogram {
+    private long[] counts;
+    private long games;
+    private long unfinished;
+    private long totalShots;
+    private int max;
+
+    public ShotHistogram() {
+        counts = new long[128];
+        games = 0;
+        unfinished = 0;
+        totalShots = 0;
+        max = 0;
+    }
+
+    /**
+     * @param shots Number of shots a game was won in, or a negative number if the
+     *              game was not won
+     */
+    public void add(int shots) {
+        if (shots < 0) {
+            unfinished++;
+            return;
+        }
+        if (shots >= counts.length)
+            counts = Arrays.copyOf(counts, Math.max(counts.length * 2, shots + 1));
+        counts[shots]++;
+        games++;
+        totalShots += shots;
+        max = Math.max(max, shots);
+    }
+
+    /**
+     * Adds the games of another histogram to this one
+     *
+     * @param other The histogram to merge
+     */
+    public void merge(ShotHistogram other) {
+        if (other.counts.length > counts.length)
+            counts = Arrays.copyOf(counts, other.counts.length);
+        for (int i = 0; i <= other.max && i < other.counts.length; i++)
+            counts[i] += other.counts[i];
+        games += other.games;
+        unfinished += other.unfinished;
+        totalShots += other.totalShots;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @return the number of games won
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * @return the number of games that were not won
+     */
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    /**
+     * @param shots A number of shots
+     * @return the number of games won in exactly that number of shots
+     */
+    public long getCount(int shots) {
+        return (shots >= 0 && shots < counts.length) ? counts[shots] : 0;
+    }
+
+    /**
+     * @return the mean number of shots of the games won, or NaN if none
+     */
+    public double getMean() {
+        return (games == 0) ? Double.NaN : (double) totalShots / games;
+    }
+
+    /**
+     * @return the largest number of shots a game was won in
+     */
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * @param p A percentage, from 0 (exclusive) to 100
+     * @return the number of shots within which p percent of the games won were
+     * won (nearest rank), or -1 if there are none
+     */
+    public int getPercentile(double p) {
+        assert p > 0 && p <= 100;
+
+        if (games == 0)
+            return -1;
+        long rank = (long) Math.ceil(p / 100 * games);
+        long seen = 0;
+        for (int shots = 0; shots <= max; shots++) {
+            seen += counts[shots];
+            if (seen >= rank)
+                return shots;
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("games=%d unfinished=%d mean=%.2f p50=%d p90=%d p99=%d max=%d", games, unfinished,
+                getMean(), getPercentile(50), getPercentile(90), getPercentile(99), max);
+    }
+}
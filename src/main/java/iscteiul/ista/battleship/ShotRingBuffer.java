@@ -0,0 +1,301 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An ingestion stage for shots at many games, fed by many producer threads:
+ * a preallocated ring of shot events (game id, row, column) in the style of
+ * the LMAX Disruptor.
+ * <p>
+ * A producer claims the next sequence number with one atomic increment, waits
+ * if the ring is full (until every consumer is past the event it would
+ * overwrite), writes the event into the arrays of the ring and marks its slot
+ * as published with the round of the sequence. Nothing is allocated per event.
+ * <p>
+ * Games are partitioned among the consumer threads by id. Every consumer walks
+ * the whole ring in sequence order, takes as a batch every event published
+ * since its last one, handles the events of its own games and skips the rest,
+ * so the shots at a game are handled by one thread, in the order they were
+ * published, and game state needs no locks.
+ * <p>
+ * Closing the ring publishes a last event that tells the consumers to stop. A
+ * producer checks that the ring is still open after claiming its sequence:
+ * every shot claimed before the last event is either handled or, if the ring
+ * was closed meanwhile, published as an event that no consumer handles and
+ * rejected, so no shot that publish accepted is lost and no consumer waits for
+ * a sequence that is never published.
+ */
+public final class ShotRingBuffer implements AutoCloseable {
+
+    /**
+     * What consumers do with each shot, e.g. fire it at a game
+     */
+    @FunctionalInterface
+    public interface Handler {
+        void onShot(long gameId, int row, int column);
+    }
+
+    private static final int SPINS = 100;
+    private static final int YIELDS = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    // partitions of events that are not shots
+    private static final int SKIPPED = -1;
+    private static final int CLOSED = -2;
+
+    private final int mask;
+    private final int roundShift;
+    private final long[] gameIds;
+    private final int[] rows;
+    private final int[] columns;
+    private final int[] partitions;
+    private final AtomicIntegerArray published;
+
+    private final AtomicLong next;
+    private final Consumer[] consumers;
+    private final Handler handler;
+    private final LongAdder failures;
+    private volatile long gatingCache;
+    private volatile boolean running;
+    // the sequence of the last event, once the ring is closed
+    private volatile long closedAt;
+
+    /**
+     * A consumer thread and the last sequence it has gone past
+     */
+    private final class Consumer extends Thread {
+        private final int partition;
+        private final AtomicLong processed = new AtomicLong(-1);
+
+        private Consumer(int partition) {
+            super("shot-consumer-" + partition);
+            this.partition = partition;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long sequence = 0;
+            int idle = 0;
+            while (true) {
+                long last = highestPublished(sequence);
+                if (last < sequence) {
+                    idle = backOff(idle);
+                    continue;
+                }
+                idle = 0;
+                for (; sequence <= last; sequence++) {
+                    int i = (int) sequence & mask;
+                    if (partitions[i] == CLOSED) {
+                        processed.lazySet(sequence);
+                        return;
+                    }
+                    if (partitions[i] == partition) {
+                        try {
+                            handler.onShot(gameIds[i], rows[i], columns[i]);
+                        } catch (Throwable e) {
+                            // a consumer that died would leave producers waiting for space forever
+                            failures.increment();
+                        }
+                    }
+                }
+                processed.lazySet(last);
+            }
+        }
+    }
+
+    /**
+     * @param capacity  Number of events in the ring, a power of two
+     * @param consumers Number of consumer threads
+     * @param handler   What the consumers do with each shot
+     */
+    public ShotRingBuffer(int capacity, int consumers, Handler handler) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("ERROR! capacity must be a power of two " + capacity);
+        if (consumers <= 0)
+            throw new IllegalArgumentException("ERROR! invalid number of consumers " + consumers);
+        assert handler != null;
+
+        mask = capacity - 1;
+        roundShift = Integer.numberOfTrailingZeros(capacity);
+        gameIds = new long[capacity];
+        rows = new int[capacity];
+        columns = new int[capacity];
+        partitions = new int[capacity];
+        published = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < capacity; i++)
+            published.set(i, -1);
+
+        next = new AtomicLong();
+        this.handler = handler;
+        failures = new LongAdder();
+        gatingCache = -1;
+        running = true;
+        closedAt = Long.MAX_VALUE;
+        this.consumers = new Consumer[consumers];
+        for (int k = 0; k < consumers; k++)
+            this.consumers[k] = new Consumer(k);
+        for (Consumer consumer : this.consumers)
+            consumer.start();
+    }
+
+    /**
+     * A ring whose consumers fire the shots at the games of a registry; shots at
+     * games that are not live are counted as failures
+     *
+     * @param registry  The games
+     * @param capacity  Number of events in the ring, a power of two
+     * @param consumers Number of consumer threads
+     */
+    public static ShotRingBuffer firingAt(GameRegistry registry, int capacity, int consumers) {
+        return new ShotRingBuffer(capacity, consumers, registry::fire);
+    }
+
+    /**
+     * Queues a shot, waiting while the ring is full. A shot this returns for is
+     * always handled, even if the ring is closed meanwhile
+     *
+     * @param gameId The id of the game
+     * @param row    Row of the cell fired at
+     * @param column Column of the cell fired at
+     * @return the sequence number of the shot
+     * @throws IllegalStateException if the ring is closed
+     */
+    public long publish(long gameId, int row, int column) {
+        if (!running)
+            throw new IllegalStateException("ERROR! the ring buffer is closed");
+
+        long sequence = next.getAndIncrement();
+        if (!running) {
+            skip(sequence);
+            throw new IllegalStateException("ERROR! the ring buffer is closed");
+        }
+        write(sequence, gameId, row, column, partitionOf(gameId));
+        return sequence;
+    }
+
+    /**
+     * @return the number of shots whose handler threw an exception or an error
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Stops accepting shots, waits until the consumers have handled every shot
+     * accepted by publish, and stops them. If the calling thread is interrupted
+     * it still waits for the consumers, and its interrupt status is set again
+     * on return
+     */
+    @Override
+    public synchronized void close() {
+        if (running) {
+            running = false;
+            long last = next.getAndIncrement();
+            closedAt = last;
+            write(last, 0, 0, 0, CLOSED);
+        }
+        boolean interrupted = false;
+        for (Consumer consumer : consumers) {
+            while (consumer.isAlive()) {
+                try {
+                    consumer.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Writes an event into the ring and publishes it
+     */
+    private void write(long sequence, long gameId, int row, int column, int partition) {
+        awaitSpace(sequence);
+        int i = (int) sequence & mask;
+        gameIds[i] = gameId;
+        rows[i] = row;
+        columns[i] = column;
+        partitions[i] = partition;
+        published.setRelease(i, (int) (sequence >>> roundShift));
+    }
+
+    /**
+     * Gives up a sequence claimed while the ring was being closed. If it comes
+     * before the last event, the consumers still wait for it, so it is
+     * published as an event that none of them handles; after the last event
+     * the consumers are gone and it is left alone
+     */
+    private void skip(long sequence) {
+        long last;
+        while ((last = closedAt) == Long.MAX_VALUE)
+            Thread.onSpinWait();
+        if (sequence < last)
+            write(sequence, 0, 0, 0, SKIPPED);
+    }
+
+    private int partitionOf(long gameId) {
+        return (int) ((Hashing.mix64(gameId) >>> 1) % consumers.length);
+    }
+
+    /**
+     * Waits until every consumer is past the event that the given sequence
+     * overwrites; the slowest consumer is cached, so the consumers are only
+     * read when the ring looks full
+     */
+    private void awaitSpace(long sequence) {
+        long wrap = sequence - mask - 1;
+        if (wrap <= gatingCache)
+            return;
+        int idle = 0;
+        long slowest;
+        while (wrap > (slowest = slowestConsumer()))
+            idle = backOff(idle);
+        gatingCache = slowest;
+    }
+
+    private long slowestConsumer() {
+        long slowest = Long.MAX_VALUE;
+        for (Consumer consumer : consumers)
+            slowest = Math.min(slowest, consumer.processed.get());
+        return slowest;
+    }
+
+    /**
+     * @return the last sequence of the run of published events that starts at
+     * the given sequence, or sequence - 1 if that one is not published yet
+     */
+    private long highestPublished(long sequence) {
+        long claimed = next.get();
+        long last = sequence - 1;
+        for (long s = sequence; s < claimed && s - sequence <= mask; s++) {
+            if (published.getAcquire((int) s & mask) != (int) (s >>> roundShift))
+                break;
+            last = s;
+        }
+        return last;
+    }
+
+    /**
+     * Waits a little, spinning at first, then yielding, then parking
+     *
+     * @return the number of times the caller has waited so far
+     */
+    private static int backOff(int idle) {
+        if (idle < SPINS)
+            Thread.onSpinWait();
+        else if (idle < SPINS + YIELDS)
+            Thread.yield();
+        else
+            LockSupport.parkNanos(PARK_NANOS);
+        return idle + 1;
+    }
+}
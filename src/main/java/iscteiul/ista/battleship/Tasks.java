@@ -3,11 +3,13 @@
  */
 package iscteiul.ista.battleship;
 
+import java.io.PrintStream;
 import java.util.Scanner;
 
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.util.Unbox;
 
 public class Tasks {
     private static final Logger LOGGER = LogManager.getLogger();
@@ -26,6 +28,11 @@ public class Tasks {
     private static final String BATOTA = "mapa";
     private static final String STATUS = "estado";
 
+    /**
+     * Kinds of ships, as typed by the user (see Ship#buildShip)
+     */
+    private static final String[] SHIP_KINDS = {"barca", "caravela", "nau", "fragata", "galeao"};
+
 
     /////////////////////////////////////////////////////////////////////////////
     // hereafter one may find some code that can be converted to automatic tests,
@@ -39,7 +46,15 @@ public class Tasks {
      * indicates whether the ship occupies each one of such positions or not
      */
     public static void taskA() {
-        Scanner in = new Scanner(System.in);
+        taskA(new CommandTokenizer(System.in));
+    }
+
+    /**
+     * Same as taskA(), reading the commands from a tokenizer
+     *
+     * @param in The tokenizer to read from
+     */
+    public static void taskA(CommandTokenizer in) {
         while (in.hasNext()) {
             Ship s = readShip(in);
             if (s != null)
@@ -54,23 +69,27 @@ public class Tasks {
      * This task tests the building up of fleets
      */
     public static void taskB() {
-        Scanner in = new Scanner(System.in);
+        taskB(new CommandTokenizer(System.in));
+    }
+
+    /**
+     * Same as taskB(), reading the commands from a tokenizer. The end of the
+     * input counts as giving up
+     *
+     * @param in The tokenizer to read from
+     */
+    public static void taskB(CommandTokenizer in) {
         IFleet fleet = null;
-        String command = in.next();
-        while (!command.equals(DESISTIR)) {
-            switch (command) {
-                case NOVAFROTA:
-                    fleet = buildFleet(in);
-                    break;
-                case STATUS:
-                    if (fleet != null)
-                        fleet.printStatus();
-                    break;
-                default:
-                    LOGGER.info("Que comando é esse??? Repete lá ...");
+        while (in.nextToken() && !in.tokenIs(DESISTIR)) {
+            if (in.tokenIs(NOVAFROTA)) {
+                fleet = buildFleet(in);
+            } else if (in.tokenIs(STATUS)) {
+                if (fleet != null)
+                    fleet.printStatus();
+            } else {
+                // The other commands are unknown in this task
+                LOGGER.info("Que comando é esse??? Repete lá ...");
             }
-            // The other commands are unknown in this task
-            command = in.next();
         }
         LOGGER.info(GOODBYE_MESSAGE);
     }
@@ -80,26 +99,29 @@ public class Tasks {
      * possibility of cheating
      */
     public static void taskC() {
-        Scanner in = new Scanner(System.in);
+        taskC(new CommandTokenizer(System.in));
+    }
+
+    /**
+     * Same as taskC(), reading the commands from a tokenizer. The end of the
+     * input counts as giving up
+     *
+     * @param in The tokenizer to read from
+     */
+    public static void taskC(CommandTokenizer in) {
         IFleet fleet = null;
-        String command = in.next();
-        while (!command.equals(DESISTIR)) {
-            switch (command) {
-                case NOVAFROTA:
-                    fleet = buildFleet(in);
-                    break;
-                case STATUS:
-                    if (fleet != null)
-                        fleet.printStatus();
-                    break;
-                case BATOTA:
-                    LOGGER.info(fleet);
-                    break;
-                default:
-                    LOGGER.info("Que comando é esse??? Repete lá ...");
+        while (in.nextToken() && !in.tokenIs(DESISTIR)) {
+            if (in.tokenIs(NOVAFROTA)) {
+                fleet = buildFleet(in);
+            } else if (in.tokenIs(STATUS)) {
+                if (fleet != null)
+                    fleet.printStatus();
+            } else if (in.tokenIs(BATOTA)) {
+                LOGGER.info("{}", fleet);
+            } else {
+                // The other commands are unknown in this task
+                LOGGER.info("Que comando é esse??? Repete lá ...");
             }
-            // The other commands are unknown in this task
-            command = in.next();
         }
         LOGGER.info(GOODBYE_MESSAGE);
     }
@@ -108,57 +130,73 @@ public class Tasks {
      * This task also tests the fighting element of a round of three shots
      */
     public static void taskD() {
+        taskD(new CommandTokenizer(System.in));
+    }
 
-        Scanner in = new Scanner(System.in);
+    /**
+     * Same as taskD(), reading the commands from a tokenizer. The end of the
+     * input counts as giving up
+     *
+     * @param in The tokenizer to read from
+     * @return The last game played, or null if no fleet was built
+     */
+    public static IGame taskD(CommandTokenizer in) {
+        return taskD(in, System.out);
+    }
+
+    /**
+     * Same as taskD(CommandTokenizer), printing the fleet status and the boards
+     * (estado, mapa and ver) to the given stream instead of System.out
+     *
+     * @param in  The tokenizer to read from
+     * @param out Where fleets and boards are printed
+     * @return The last game played, or null if no fleet was built
+     */
+    public static IGame taskD(CommandTokenizer in, PrintStream out) {
         IFleet fleet = null;
-        IGame game = null;
-        String command = in.next();
-        while (!command.equals(DESISTIR)) {
-            switch (command) {
-                case NOVAFROTA:
-                    fleet = buildFleet(in);
-                    game = new Game(fleet);
-                    break;
-                case STATUS:
-                    if (fleet != null)
-                        fleet.printStatus();
-                    break;
-                case BATOTA:
-                    if (fleet != null)
-                        game.printFleet();
-                    break;
-                case RAJADA:
-                    if (game != null) {
-                        firingRound(in, game);
-
-                        LOGGER.info("Hits: {} Inv: {} Rep: {} Restam {} navios.", game.getHits(), game.getInvalidShots(),
-                                game.getRepeatedShots(), game.getRemainingShips());
-                        if (game.getRemainingShips() == 0)
-                            LOGGER.info("Maldito sejas, Java Sparrow, eu voltarei, glub glub glub...");
-                    }
-                    break;
-                case VERTIROS:
-                    if (game != null)
-                        game.printValidShots();
-                    break;
-                default:
-                    LOGGER.info("Que comando é esse??? Repete ...");
+        Game game = null;
+        while (in.nextToken() && !in.tokenIs(DESISTIR)) {
+            if (in.tokenIs(NOVAFROTA)) {
+                fleet = buildFleet(in);
+                game = new Game(fleet);
+                game.setRenderer(new BoardRenderer(fleet.getRules().getBoardSize(), out, false));
+            } else if (in.tokenIs(STATUS)) {
+                if (fleet != null)
+                    fleet.printStatus(out);
+            } else if (in.tokenIs(BATOTA)) {
+                if (fleet != null)
+                    game.printFleet();
+            } else if (in.tokenIs(RAJADA)) {
+                if (game != null) {
+                    firingRound(in, game);
+
+                    LOGGER.info("Hits: {} Inv: {} Rep: {} Restam {} navios.", Unbox.box(game.getHits()),
+                            Unbox.box(game.getInvalidShots()), Unbox.box(game.getRepeatedShots()),
+                            Unbox.box(game.getRemainingShips()));
+                    if (game.getRemainingShips() == 0)
+                        LOGGER.info("Maldito sejas, Java Sparrow, eu voltarei, glub glub glub...");
+                }
+            } else if (in.tokenIs(VERTIROS)) {
+                if (game != null)
+                    game.printValidShots();
+            } else {
+                LOGGER.info("Que comando é esse??? Repete ...");
             }
-            command = in.next();
         }
         LOGGER.info(GOODBYE_MESSAGE);
+        return game;
     }
 
     /**
      * This operation allows the build up of a fleet, given user data
      *
-     * @param in The scanner to read from
+     * @param in The source of commands to read from
      * @return The fleet that has been built
      */
-    static Fleet buildFleet(Scanner in) {
+    static Fleet buildFleet(ICommandSource in) {
         assert in != null;
 
-        Fleet fleet = new Fleet();
+        Fleet fleet = new BitboardFleet();
         int i = 0; // i represents the total of successfully created ships
 
         while (i <= Fleet.FLEET_SIZE) {
@@ -173,51 +211,66 @@ public class Tasks {
                 LOGGER.info("Navio desconhecido!");
             }
         }
-        LOGGER.info("{} navios adicionados com sucesso!", i);
+        LOGGER.info("{} navios adicionados com sucesso!", Unbox.box(i));
         return fleet;
     }
 
+    static Fleet buildFleet(Scanner in) {
+        return buildFleet(ICommandSource.of(in));
+    }
+
     /**
      * This operation reads data about a ship, build it and returns it
      *
-     * @param in The scanner to read from
-     * @return The created ship based on the data that has been read
+     * @param in The source of commands to read from
+     * @return The created ship based on the data that has been read, or null
+     * if its kind is unknown
      */
-    static Ship readShip(Scanner in) {
-        String shipKind = in.next();
+    static Ship readShip(ICommandSource in) {
+        String shipKind = in.nextWord(SHIP_KINDS);
         Position pos = readPosition(in);
-        char c = in.next().charAt(0);
-        Compass bearing = Compass.charToCompass(c);
-        return Ship.buildShip(shipKind, bearing, pos);
+        Compass bearing = Compass.charToCompass(in.nextChar());
+        return (shipKind == null) ? null : Ship.buildShip(shipKind, bearing, pos);
+    }
+
+    static Ship readShip(Scanner in) {
+        return readShip(ICommandSource.of(in));
     }
 
     /**
      * This operation allows reading a position in the map
      *
-     * @param in The scanner to read from
+     * @param in The source of commands to read from
      * @return The position that has been read
      */
-    static Position readPosition(Scanner in) {
+    static Position readPosition(ICommandSource in) {
         int row = in.nextInt();
         int column = in.nextInt();
         return new Position(row, column);
     }
 
+    static Position readPosition(Scanner in) {
+        return readPosition(ICommandSource.of(in));
+    }
+
     /**
      * This operation allows firing a round of shots (three) over a fleet, in the
      * context of a game
      *
-     * @param in   The scanner to read from
+     * @param in   The source of commands to read from
      * @param game The context game while fleet is being attacked
      */
-    static void firingRound(Scanner in, IGame game) {
+    static void firingRound(ICommandSource in, IGame game) {
         for (int i = 0; i < NUMBER_SHOTS; i++) {
             IPosition pos = readPosition(in);
             IShip sh = game.fire(pos);
             if (sh != null)
                 LOGGER.info("Mas... mas... {}s nao sao a prova de bala? :-(", sh.getCategory());
         }
+    }
 
+    static void firingRound(Scanner in, IGame game) {
+        firingRound(ICommandSource.of(in), game);
     }
 
 }
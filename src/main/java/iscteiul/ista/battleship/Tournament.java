@@ -0,0 +1,98 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+/**
+ * Plays many complete games of a shooting strategy against generated fleets, in
+ * parallel on a ForkJoinPool, and collects the number of shots each game took
+ * into a ShotHistogram.
+ * <p>
+ * Games share nothing: the i-th game of a seed is played against the i-th fleet
+ * of that seed (see FleetGenerator) by an attacker with its own SplittableRandom,
+ * and each worker thread adds to its own histograms, which are only merged when
+ * the worker's share of the games is done. Results therefore do not depend on the
+ * number of threads, and strategies run with the same seed face the same fleets.
+ */
+public class Tournament {
+    private static final long ATTACKER_SALT = 0x5deece66dL;
+
+    private final FleetGenerator generator;
+    private final int maxShots;
+    private final ForkJoinPool pool;
+
+    /**
+     * Standard fleets on the standard board, on every core
+     */
+    public Tournament() {
+        this(new FleetGenerator(), 4 * IFleet.BOARD_SIZE * IFleet.BOARD_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param generator The generator of the fleets under attack
+     * @param maxShots  Number of shots after which a game is given up
+     * @param pool      The pool the games are played on
+     */
+    public Tournament(FleetGenerator generator, int maxShots, ForkJoinPool pool) {
+        if (maxShots <= 0)
+            throw new IllegalArgumentException("ERROR! invalid number of shots " + maxShots);
+
+        this.generator = generator;
+        this.maxShots = maxShots;
+        this.pool = pool;
+    }
+
+    /**
+     * @param strategy Builds the attacker of a game from its source of randomness
+     * @param seed     The seed of the fleets and of the attackers
+     * @param games    Number of games
+     * @return the distribution of the number of shots the games took
+     */
+    public ShotHistogram play(Function<SplittableRandom, IAttacker> strategy, long seed, long games) {
+        try {
+            return pool.submit(() -> LongStream.range(0, games).parallel()
+                    .collect(ShotHistogram::new, (histogram, i) -> histogram.add(playGame(strategy, seed, i)),
+                            ShotHistogram::merge)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("ERROR! tournament interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("ERROR! tournament failed", e.getCause());
+        }
+    }
+
+    private int playGame(Function<SplittableRandom, IAttacker> strategy, long seed, long i) {
+        IGame game = new Game(generator.generate(FleetGenerator.randomFor(seed, i)));
+        IAttacker attacker = strategy.apply(FleetGenerator.randomFor(seed ^ ATTACKER_SALT, i));
+        return play(attacker, game, maxShots);
+    }
+
+    /**
+     * Lets an attacker fire at a game until the whole fleet is sunk
+     *
+     * @param attacker The attacker
+     * @param game     The game under attack
+     * @param maxShots Number of shots after which the game is given up
+     * @return the number of shots fired, or -1 if the fleet was not sunk
+     */
+    public static int play(IAttacker attacker, IGame game, int maxShots) {
+        int shots = 0;
+        while (game.getRemainingShips() > 0) {
+            if (shots == maxShots)
+                return -1;
+            long shot = attacker.nextShot();
+            int row = Coordinate.rowOf(shot);
+            int column = Coordinate.columnOf(shot);
+            int result = game.fire(row, column);
+            shots++;
+            attacker.update(row, column, result, (result == IGame.SHOT_SUNK) ? game.getLastSunkShip() : null);
+        }
+        return shots;
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded cache of evaluated game states, keyed by their Zobrist hash (see
+ * IGame#getStateHash), shared without locks by the threads of a search.
+ * <p>
+ * The table is a power of two of slots, each a pair of longs in one
+ * AtomicLongArray: the value, and the hash xor the value. A state is stored in
+ * the slot picked by the low bits of its hash, replacing whatever was there.
+ * Writers do not lock, so two threads storing into the same slot at once may
+ * leave it with the key of one and the value of the other; such a torn slot no
+ * longer satisfies key == hash ^ value and reads as empty, so a lookup never
+ * returns a value stored for another state.
+ */
+public final class TranspositionTable {
+    public static final int MAX_CAPACITY = 1 << 29;
+
+    // keeps empty slots (all zeros) from matching a state with hash 0
+    private static final long EMPTY = 0x6a09e667f3bcc909L;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+
+    /**
+     * @param capacity Number of states the table can hold, rounded up to a
+     *                 power of two
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY)
+            throw new IllegalArgumentException("ERROR! invalid capacity " + capacity);
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+        slots = new AtomicLongArray(2 * size);
+        mask = size - 1;
+    }
+
+    /**
+     * @return the number of states the table can hold
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @param hash   The hash of a state
+     * @param absent What to return if the state is not in the table
+     * @return the value stored for the state, or absent
+     */
+    public long get(long hash, long absent) {
+        int i = 2 * ((int) hash & mask);
+        long key = slots.getOpaque(i);
+        long value = slots.getOpaque(i + 1);
+        return ((key ^ value ^ EMPTY) == hash) ? value : absent;
+    }
+
+    /**
+     * Stores the value of a state, evicting the state that was in its slot
+     *
+     * @param hash  The hash of the state
+     * @param value Its value, e.g. an evaluation packed with the search depth
+     */
+    public void put(long hash, long value) {
+        int i = 2 * ((int) hash & mask);
+        slots.setOpaque(i + 1, value);
+        slots.setOpaque(i, hash ^ value ^ EMPTY);
+    }
+
+    /**
+     * Empties the table; not atomic with respect to concurrent puts
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++)
+            slots.setOpaque(i, 0);
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * Zobrist keys of what is known about a board: a random 64 bit key for each
+ * cell fired at with a miss, each cell hit, and each ship sunk (keyed by its
+ * position). The hash of a set of shot outcomes is the xor of their keys, so it
+ * does not depend on the order of the shots and is updated with one xor per
+ * outcome, both when firing and when taking a shot back.
+ * <p>
+ * Keys are derived from the cell with the SplitMix64 finalizer instead of being
+ * kept in a table, so they cost no memory on boards of any size.
+ */
+final class Zobrist {
+    static final int MISS = 0;
+    static final int HIT = 1;
+    static final int SUNK = 2;
+
+    private static final long[] SALTS = {0x2545f4914f6cdd1dL, 0x9e3779b97f4a7c15L, 0xd1b54a32d192ed03L};
+
+    private Zobrist() {
+    }
+
+    /**
+     * @param row    Row of the cell
+     * @param column Column of the cell
+     * @param kind   MISS, HIT or SUNK
+     * @return the key of the outcome at the cell
+     */
+    static long key(int row, int column, int kind) {
+        return Hashing.mix64(Coordinate.pack(row, column) ^ SALTS[kind]);
+    }
+
+    /**
+     * @return the keys of the outcomes of a shot, as reported by IGame#fire;
+     * a sinking shot is a hit plus the sunk ship
+     */
+    static long keyOf(int row, int column, int result, IShip sunk) {
+        switch (result) {
+            case IGame.SHOT_MISS:
+                return key(row, column, MISS);
+            case IGame.SHOT_HIT:
+                return key(row, column, HIT);
+            case IGame.SHOT_SUNK:
+                return key(row, column, HIT) ^ key(sunk.getPosition().getRow(), sunk.getPosition().getColumn(), SUNK);
+            default:
+                return 0;
+        }
+    }
+}
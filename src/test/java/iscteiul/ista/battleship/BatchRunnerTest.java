@@ -0,0 +1,101 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do BatchRunner")
+class BatchRunnerTest {
+
+    private static final String FLEET =
+            "nova\ngaleao 0 0 n\nfragata 0 5 e\nnau 4 0 s\nnau 2 5 e\ncaravela 4 3 e\ncaravela 6 6 s\n" +
+            "caravela 8 0 e\nbarca 9 9 n\nbarca 4 9 n\nbarca 6 3 n\nbarca 9 4 n\n";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Cada script é um jogo independente e os resultados saem pela ordem dos nomes")
+    void runWritesOneLinePerScript() throws IOException {
+        Path scripts = Files.createDirectory(dir.resolve("scripts"));
+        Files.writeString(scripts.resolve("b.txt"), FLEET + "rajada 9 9 9 9 20 0\ndesisto\n");
+        Files.writeString(scripts.resolve("a.txt"), FLEET + "rajada 0 0 0 1 0 2\nrajada 1 1 2 1 5 5\n");
+        Files.writeString(scripts.resolve("c.txt"), "estado\ndesisto\n");
+        Files.writeString(scripts.resolve("d.txt"), FLEET + "rajada 1 x\n");
+        Path output = dir.resolve("results.csv");
+
+        int failures = new BatchRunner(2).run(scripts, output);
+
+        List<String> lines = Files.readAllLines(output);
+        assertEquals(2, failures);
+        assertEquals(5, lines.size());
+        assertEquals(BatchRunner.HEADER, lines.get(0));
+        assertEquals("a.txt,5,0,0,1,10", lines.get(1));
+        assertEquals("b.txt,1,1,1,1,10", lines.get(2));
+        assertEquals("c.txt,ERROR,no fleet", lines.get(3));
+        assertTrue(lines.get(4).startsWith("d.txt,ERROR,"));
+    }
+
+    @Test
+    @DisplayName("Os jogos não escrevem no System.out e os nomes são citados no CSV")
+    void headlessAndQuoted() throws IOException {
+        Path scripts = Files.createDirectory(dir.resolve("scripts"));
+        Files.writeString(scripts.resolve("x,ERROR,y.txt"), FLEET + "estado\nmapa\nrajada 0 0 0 1 0 2\nver\n");
+        Files.writeString(scripts.resolve("z\"q.txt"), "desisto\n");
+        Path output = dir.resolve("results.csv");
+
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        int failures;
+        try {
+            System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+            failures = new BatchRunner(2).run(scripts, output);
+        } finally {
+            System.setOut(stdout);
+        }
+
+        List<String> lines = Files.readAllLines(output);
+        assertEquals(1, failures);
+        assertEquals("\"x,ERROR,y.txt\",3,0,0,0,11", lines.get(1));
+        assertEquals("\"z\"\"q.txt\",ERROR,no fleet", lines.get(2));
+        assertEquals("", captured.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Mais scripts do que a janela de jogos em curso continuam a sair pela ordem")
+    void moreScriptsThanWindow() throws IOException {
+        Path scripts = Files.createDirectory(dir.resolve("scripts"));
+        for (int i = 0; i < 40; i++)
+            Files.writeString(scripts.resolve(String.format("s%02d.txt", i)),
+                    (i % 7 == 0) ? "desisto\n" : FLEET + "rajada 0 0 " + (i % 10) + " 9 20 0\n");
+        Path output = dir.resolve("results.csv");
+
+        int failures = new BatchRunner(2).run(scripts, output);
+
+        List<String> lines = Files.readAllLines(output);
+        assertEquals(6, failures);
+        assertEquals(41, lines.size());
+        for (int i = 0; i < 40; i++) {
+            String line = lines.get(i + 1);
+            assertTrue(line.startsWith(String.format("s%02d.txt,", i)));
+            assertEquals(i % 7 == 0, line.contains(",ERROR,"));
+        }
+        assertEquals(BatchRunner.Outcome.failure("s00.txt", "no fleet").toCsv(), lines.get(1));
+    }
+
+    @Test
+    @DisplayName("Número de threads tem de ser positivo")
+    void invalidThreads() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchRunner(0));
+    }
+}
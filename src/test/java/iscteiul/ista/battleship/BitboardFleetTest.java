@@ -0,0 +1,105 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static iscteiul.ista.battleship.IFleet.BOARD_SIZE;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes de unidade da BitboardFleet")
+class BitboardFleetTest {
+
+    private BitboardFleet fleet;
+    private IShip frigate;
+    private IShip galleon;
+    private IShip barge;
+
+    @BeforeEach
+    void setUp() {
+        fleet   = new BitboardFleet();
+        frigate = new Frigate(Compass.SOUTH, new Position(0, 0));
+        galleon = new Galleon(Compass.EAST,  new Position(6, 6));
+        barge   = new Barge(Compass.NORTH,   new Position(3, 3));
+    }
+
+    @Test
+    @DisplayName("shipAt: frota vazia não tem navios em nenhuma posição")
+    void shipAt_emptyFleet() {
+        for (int r = 0; r < BOARD_SIZE; r++)
+            for (int c = 0; c < BOARD_SIZE; c++)
+                assertNull(fleet.shipAt(new Position(r, c)));
+    }
+
+    @Test
+    @DisplayName("shipAt: devolve o mesmo navio que a Fleet em todas as posições do tabuleiro")
+    void shipAt_matchesFleet() {
+        Fleet reference = new Fleet();
+        for (IShip s : new IShip[]{frigate, galleon, barge}) {
+            assertTrue(fleet.addShip(s));
+            assertTrue(reference.addShip(s));
+        }
+
+        for (int r = 0; r < BOARD_SIZE; r++)
+            for (int c = 0; c < BOARD_SIZE; c++) {
+                Position p = new Position(r, c);
+                assertSame(reference.shipAt(p), fleet.shipAt(p), p.toString());
+            }
+    }
+
+    @Test
+    @DisplayName("shipAt: navios rejeitados não ficam no mapa de ocupação")
+    void shipAt_ignoresRejectedShips() {
+        assertTrue(fleet.addShip(frigate));
+
+        IShip colliding = new Frigate(Compass.SOUTH, new Position(0, 1));
+        assertFalse(fleet.addShip(colliding));
+
+        assertSame(frigate, fleet.shipAt(new Position(0, 0)));
+        assertNull(fleet.shipAt(new Position(0, 1)));
+    }
+
+    @Test
+    @DisplayName("addShip: aceita e rejeita exatamente os mesmos navios que a Fleet")
+    void addShip_matchesFleetCollisionRule() {
+        Fleet reference = new Fleet();
+        IShip center = new Galleon(Compass.SOUTH, new Position(4, 5));
+        assertTrue(fleet.addShip(center));
+        assertTrue(reference.addShip(center));
+
+        String[] kinds = {"barca", "caravela", "nau", "fragata", "galeao"};
+        Compass[] bearings = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+        for (String kind : kinds)
+            for (Compass bearing : bearings)
+                for (int r = 0; r < BOARD_SIZE; r++)
+                    for (int c = 0; c < BOARD_SIZE; c++) {
+                        Ship s = Ship.buildShip(kind, bearing, new Position(r, c));
+                        assertEquals(reference.colisionRisk(s), fleet.colisionRisk(s),
+                                kind + " " + bearing + " " + r + " " + c);
+                    }
+    }
+
+    @Test
+    @DisplayName("isForbidden: células ocupadas e o halo à volta ficam proibidas")
+    void isForbidden_marksShipAndHalo() {
+        assertTrue(fleet.addShip(barge));
+
+        for (int r = 2; r <= 4; r++)
+            for (int c = 2; c <= 4; c++)
+                assertTrue(fleet.isForbidden(r, c));
+        assertFalse(fleet.isForbidden(1, 3));
+        assertFalse(fleet.isForbidden(3, 5));
+        assertFalse(fleet.isForbidden(-1, 0));
+    }
+
+    @Test
+    @DisplayName("shipAt: posições fora do tabuleiro devolvem null")
+    void shipAt_outsideBoard() {
+        fleet.addShip(frigate);
+
+        assertNull(fleet.shipAt(new Position(-1, 0)));
+        assertNull(fleet.shipAt(new Position(0, -1)));
+        assertNull(fleet.shipAt(new Position(BOARD_SIZE, 0)));
+        assertNull(fleet.shipAt(new Position(0, BOARD_SIZE)));
+    }
+}
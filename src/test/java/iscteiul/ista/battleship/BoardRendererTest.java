@@ -0,0 +1,92 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes unitários do BoardRenderer")
+class BoardRendererTest {
+
+    private static final String ESC = "\u001b[";
+
+    private static String text(ByteArrayOutputStream out) {
+        String s = out.toString(StandardCharsets.US_ASCII);
+        out.reset();
+        return s;
+    }
+
+    @Test
+    @DisplayName("render: escreve o tabuleiro inteiro e begin limpa as marcas anteriores")
+    void renderFullBoard() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BoardRenderer renderer = new BoardRenderer(3, out, false);
+
+        renderer.begin();
+        renderer.mark(0, 0, '#');
+        renderer.mark(2, 1, 'X');
+        renderer.render();
+        assertEquals("#..\n...\n.X.\n", text(out));
+
+        renderer.begin();
+        renderer.mark(1, 2, 'X');
+        renderer.render();
+        assertEquals("...\n..X\n...\n", text(out));
+    }
+
+    @Test
+    @DisplayName("render: tabuleiros maiores que o frame são escritos linha a linha com o mesmo resultado")
+    void streamedBoardMatchesFrame() {
+        ByteArrayOutputStream framed = new ByteArrayOutputStream();
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        int size = 400;
+        BoardRenderer a = new BoardRenderer(size, framed, false);
+        BoardRenderer b = new BoardRenderer(size, streamed, false, 1000);
+
+        for (BoardRenderer r : new BoardRenderer[]{a, b}) {
+            r.begin();
+            r.mark(size - 1, size - 1, 'X');
+            r.mark(7, 300, '#');
+            r.mark(7, 3, 'X');
+            r.mark(0, 0, '#');
+            r.render();
+        }
+        assertEquals(size * (size + 1), streamed.size());
+        assertEquals(text(framed), text(streamed));
+    }
+
+    @Test
+    @DisplayName("Modo diff: a primeira vez desenha tudo e depois só as células que mudaram")
+    void diffRendersOnlyChanges() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BoardRenderer renderer = new BoardRenderer(12, out, true);
+
+        renderer.begin();
+        renderer.mark(0, 0, 'X');
+        renderer.render();
+        String first = text(out);
+        assertTrue(first.startsWith(ESC + "H" + ESC + "2J"));
+        assertTrue(first.endsWith("X...........\n" + "............\n".repeat(11)));
+
+        renderer.begin();
+        renderer.mark(0, 0, 'X');
+        renderer.mark(10, 11, 'X');
+        renderer.render();
+        assertEquals(ESC + "11;12HX" + ESC + "13;1H", text(out));
+
+        renderer.begin();
+        renderer.mark(10, 11, 'X');
+        renderer.render();
+        assertEquals(ESC + "1;1H." + ESC + "13;1H", text(out));
+    }
+
+    @Test
+    @DisplayName("Modo diff não está disponível em tabuleiros maiores que o frame")
+    void diffNeedsFrame() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BoardRenderer(100, new ByteArrayOutputStream(), true, 1000));
+    }
+}
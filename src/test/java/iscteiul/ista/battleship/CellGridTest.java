@@ -0,0 +1,102 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes unitários das grelhas de células (densa e por blocos)")
+class CellGridTest {
+
+    @Test
+    @DisplayName("create: tabuleiros pequenos são densos e os grandes são esparsos")
+    void createChoosesStorage() {
+        assertInstanceOf(DenseCellGrid.class, CellGrid.create(10));
+        assertInstanceOf(ChunkedCellGrid.class, CellGrid.create(100_000));
+    }
+
+    @Test
+    @DisplayName("Grelha densa e por blocos comportam-se como um mapa de células")
+    void gridsBehaveLikeAMap() {
+        int size = 300;
+        CellGrid dense = new DenseCellGrid(size);
+        CellGrid chunked = new ChunkedCellGrid();
+        Map<Long, Integer> model = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            int row = random.nextInt(size);
+            int col = random.nextInt(size);
+            long key = (long) row * size + col;
+            switch (random.nextInt(3)) {
+                case 0:
+                    dense.set(row, col);
+                    chunked.set(row, col);
+                    model.putIfAbsent(key, 0);
+                    break;
+                case 1:
+                    int value = random.nextInt(1000);
+                    dense.put(row, col, value);
+                    chunked.put(row, col, value);
+                    model.put(key, value);
+                    break;
+                default:
+                    dense.remove(row, col);
+                    chunked.remove(row, col);
+                    model.remove(key);
+            }
+        }
+
+        for (int row = 0; row < size; row++)
+            for (int col = 0; col < size; col++) {
+                Integer expected = model.get((long) row * size + col);
+                assertEquals(expected != null, dense.contains(row, col));
+                assertEquals(expected != null, chunked.contains(row, col));
+                assertEquals(expected == null ? 0 : expected, dense.get(row, col));
+                assertEquals(expected == null ? 0 : expected, chunked.get(row, col));
+            }
+    }
+
+    @Test
+    @DisplayName("Grelha por blocos só reserva blocos onde há células marcadas")
+    void chunkedGridGrowsWithMarkedCells() {
+        ChunkedCellGrid grid = new ChunkedCellGrid();
+        int far = 99_999;
+
+        grid.set(0, 0);
+        grid.set(far, far);
+        grid.put(far, 0, 7);
+        grid.set(1, 1);
+
+        assertEquals(3, grid.chunkCount());
+        assertTrue(grid.contains(far, far));
+        assertEquals(7, grid.get(far, 0));
+        assertFalse(grid.contains(50_000, 50_000));
+        assertEquals(3, grid.chunkCount(), "Consultas não criam blocos");
+    }
+
+    @Test
+    @DisplayName("copy: as cópias das grelhas são independentes do original")
+    void copyIsIndependent() {
+        for (CellGrid grid : new CellGrid[]{new DenseCellGrid(100), new ChunkedCellGrid()}) {
+            grid.set(1, 1);
+            grid.put(50, 60, 7);
+
+            CellGrid copy = grid.copy();
+            copy.remove(1, 1);
+            copy.put(50, 60, 8);
+            copy.put(99, 99, 9);
+
+            assertTrue(grid.contains(1, 1));
+            assertEquals(7, grid.get(50, 60));
+            assertFalse(grid.contains(99, 99));
+            assertFalse(copy.contains(1, 1));
+            assertEquals(8, copy.get(50, 60));
+            assertEquals(9, copy.get(99, 99));
+        }
+    }
+}
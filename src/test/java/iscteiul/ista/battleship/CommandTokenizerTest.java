@@ -0,0 +1,112 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes unitários do CommandTokenizer")
+class CommandTokenizerTest {
+
+    private static InputStream input(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Lê palavras e inteiros separados por qualquer espaço em branco")
+    void readsWordsAndInts() {
+        CommandTokenizer in = new CommandTokenizer(input("  nova\tbarca 3\r\n-4 +5  o\n"));
+
+        assertTrue(in.nextToken());
+        assertTrue(in.tokenIs("nova"));
+        assertFalse(in.tokenIs("novo"));
+        assertEquals("barca", in.next());
+        assertEquals(3, in.nextInt());
+        assertEquals(-4, in.nextInt());
+        assertEquals(5, in.nextInt());
+        assertTrue(in.nextToken());
+        assertEquals('o', in.tokenChar(0));
+        assertFalse(in.hasNext());
+        assertFalse(in.nextToken());
+        assertThrows(NoSuchElementException.class, in::nextInt);
+    }
+
+    @Test
+    @DisplayName("tokenIn devolve a palavra conhecida igual ao token, ou null")
+    void tokenIn() {
+        String[] words = {"rajada", "ver"};
+        CommandTokenizer in = new CommandTokenizer(input("ver mapa"));
+
+        in.nextToken();
+        assertSame(words[1], in.tokenIn(words));
+        in.nextToken();
+        assertNull(in.tokenIn(words));
+    }
+
+    @Test
+    @DisplayName("nextInt rejeita tokens que não são inteiros ou que excedem um int")
+    void nextIntRejectsInvalidTokens() {
+        CommandTokenizer in = new CommandTokenizer(input("1a - 2147483648 -2147483648 2147483647"));
+
+        assertThrows(InputMismatchException.class, in::nextInt);
+        assertThrows(InputMismatchException.class, in::nextInt);
+        assertThrows(InputMismatchException.class, in::nextInt);
+        assertEquals(Integer.MIN_VALUE, in.nextInt());
+        assertEquals(Integer.MAX_VALUE, in.nextInt());
+    }
+
+    @Test
+    @DisplayName("Tokens que atravessam o fim do buffer são lidos inteiros e pela mesma ordem do Scanner")
+    void tokensAcrossBufferBoundaries() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 50_000; i++)
+            sb.append(i % 7 == 0 ? "galeao" : "caravela").append(' ').append(i * 31).append(i % 3 == 0 ? '\n' : ' ');
+        sb.append("x".repeat(100_000));
+        String text = sb.toString();
+
+        Scanner reference = new Scanner(text);
+        CommandTokenizer in = new CommandTokenizer(Channels.newChannel(input(text)));
+        while (reference.hasNext()) {
+            assertTrue(in.hasNext());
+            assertEquals(reference.next(), in.next());
+        }
+        assertFalse(in.hasNext());
+    }
+
+    @Test
+    @DisplayName("token devolve o texto UTF-8 original")
+    void tokenDecodesUtf8() {
+        CommandTokenizer in = new CommandTokenizer(input("galeão navio"));
+
+        assertEquals("galeão", in.next());
+        assertFalse(in.tokenIs("galeao"));
+        assertEquals("navio", in.next());
+    }
+
+    @Test
+    @DisplayName("O tokenizer e o adaptador de Scanner leem os mesmos comandos")
+    void commandSourcesAgree() {
+        String script = "nau 3 4 e submarino 0 0 s";
+        String[] kinds = {"barca", "nau"};
+        ICommandSource[] sources = {new CommandTokenizer(input(script)), ICommandSource.of(new Scanner(script))};
+        for (ICommandSource in : sources) {
+            assertSame(kinds[1], in.nextWord(kinds));
+            assertEquals(3, in.nextInt());
+            assertEquals(4, in.nextInt());
+            assertEquals('e', in.nextChar());
+            assertNull(in.nextWord(kinds));
+            assertEquals(0, in.nextInt());
+            assertEquals(0, in.nextInt());
+            assertEquals('s', in.nextChar());
+            assertThrows(NoSuchElementException.class, () -> in.nextWord(kinds));
+        }
+    }
+}
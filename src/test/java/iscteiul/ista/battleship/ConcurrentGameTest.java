@@ -0,0 +1,106 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do ConcurrentGame")
+class ConcurrentGameTest {
+
+    private static final FleetGenerator GENERATOR = new FleetGenerator();
+
+    @Test
+    @DisplayName("Com uma só thread, os resultados são os mesmos do Game")
+    void sameOutcomesAsGame() {
+        BitboardFleet fleet = GENERATOR.generate(new SplittableRandom(5));
+        Game game = new Game(fleet.copy());
+        ConcurrentGame concurrent = new ConcurrentGame(fleet.copy());
+        SplittableRandom random = new SplittableRandom(5);
+
+        for (int i = 0; i < 400; i++) {
+            int row = random.nextInt(-1, 11);
+            int column = random.nextInt(-1, 11);
+            assertEquals(game.fire(row, column), concurrent.fire(row, column), "shot " + i);
+        }
+
+        assertEquals(game.getShots(), concurrent.getShots());
+        assertEquals(game.getInvalidShots(), concurrent.getInvalidShots());
+        assertEquals(game.getRepeatedShots(), concurrent.getRepeatedShots());
+        assertEquals(game.getHits(), concurrent.getHits());
+        assertEquals(game.getSunkShips(), concurrent.getSunkShips());
+        assertEquals(game.getRemainingShips(), concurrent.getRemainingShips());
+        assertEquals(game.getStateHash(), concurrent.getStateHash());
+        assertEquals(game.getLastSunkShip().getPosition(), concurrent.getLastSunkShip().getPosition());
+    }
+
+    @Test
+    @DisplayName("Threads a disparar nas mesmas células contam cada impacto e afundamento uma só vez")
+    void exactlyOnce() throws Exception {
+        BitboardFleet fleet = GENERATOR.generate(new SplittableRandom(6));
+        ConcurrentGame game = new ConcurrentGame(fleet);
+        int threads = 4;
+        CyclicBarrier start = new CyclicBarrier(threads);
+        AtomicInteger hits = new AtomicInteger();
+        AtomicInteger sinks = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                for (int row = 0; row < 10; row++)
+                    for (int column = 0; column < 10; column++) {
+                        int result = game.fire(row, column);
+                        if (result == IGame.SHOT_HIT || result == IGame.SHOT_SUNK)
+                            hits.incrementAndGet();
+                        if (result == IGame.SHOT_SUNK)
+                            sinks.incrementAndGet();
+                    }
+            }));
+        }
+        for (Thread worker : workers)
+            worker.start();
+        for (Thread worker : workers)
+            worker.join();
+
+        int cells = 0;
+        for (IShip s : fleet.getShips())
+            cells += s.getPositions().size();
+        assertEquals(cells, hits.get());
+        assertEquals(cells, game.getHits());
+        assertEquals(11, sinks.get());
+        assertEquals(11, game.getSunkShips());
+        assertEquals(0, game.getRemainingShips());
+        assertEquals(100, game.getShots().size());
+        assertEquals(100, new HashSet<>(game.getShots()).size());
+        assertEquals(300, game.getRepeatedShots());
+    }
+
+    @Test
+    @DisplayName("Tabuleiros grandes usam reivindicações por faixas")
+    void largeBoard() {
+        GameRules rules = new GameRules(100_000, 10);
+        BitboardFleet fleet = new BitboardFleet(rules);
+        fleet.addShip(new Barge(Compass.NORTH, new Position(99_999, 99_999)));
+        ConcurrentGame game = new ConcurrentGame(fleet);
+
+        assertEquals(IGame.SHOT_MISS, game.fire(50_000, 7));
+        assertEquals(IGame.SHOT_REPEATED, game.fire(50_000, 7));
+        assertEquals(IGame.SHOT_INVALID, game.fire(100_000, 7));
+        for (int i = 0; i < 100; i++)
+            assertEquals(IGame.SHOT_MISS, game.fire(i, i));
+        assertNotNull(game.fire(new Position(99_999, 99_999)));
+        assertEquals(102, game.getShots().size());
+        assertEquals(new Position(99, 99), game.getShots().get(100));
+    }
+}
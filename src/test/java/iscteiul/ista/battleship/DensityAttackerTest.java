@@ -0,0 +1,86 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do DensityAttacker")
+class DensityAttackerTest {
+
+    /**
+     * Joga um jogo completo e devolve o número de tiros até afundar a frota
+     */
+    private static int play(IAttacker attacker, Game game, int maxShots) {
+        int shots = 0;
+        while (game.getRemainingShips() > 0) {
+            assertTrue(++shots <= maxShots, "demasiados tiros");
+            long shot = attacker.nextShot();
+            int row = Coordinate.rowOf(shot);
+            int column = Coordinate.columnOf(shot);
+            int result = game.fire(row, column);
+            assertTrue(result >= IGame.SHOT_MISS, "tiro inválido ou repetido em " + row + " " + column);
+            attacker.update(row, column, result, result == IGame.SHOT_SUNK ? game.getLastSunkShip() : null);
+        }
+        return shots;
+    }
+
+    @Test
+    @DisplayName("Afunda frotas padrão sem tiros inválidos nem repetidos e bem melhor do que ao acaso")
+    void sinksStandardFleets() {
+        FleetGenerator generator = new FleetGenerator();
+        int games = 200;
+        long total = 0;
+        for (int i = 0; i < games; i++) {
+            Game game = new Game(generator.generate(FleetGenerator.randomFor(1, i)));
+            total += play(new DensityAttacker(new SplittableRandom(i)), game, 100);
+        }
+        assertTrue(total / (double) games < 60, "média de tiros " + total / (double) games);
+    }
+
+    @Test
+    @DisplayName("Sem tiros, prefere o centro do tabuleiro aos cantos")
+    void firstShotAvoidsCorners() {
+        for (int seed = 0; seed < 20; seed++) {
+            long shot = new DensityAttacker(new SplittableRandom(seed)).nextShot();
+            int row = Coordinate.rowOf(shot);
+            int column = Coordinate.columnOf(shot);
+            assertTrue(row >= 2 && row <= 7 && column >= 2 && column <= 7, row + " " + column);
+        }
+    }
+
+    @Test
+    @DisplayName("Depois de um acerto dispara junto dele até afundar o navio, também em tabuleiros grandes")
+    void targetsAroundHits() {
+        int size = 300;
+        BitboardFleet fleet = new BitboardFleet(new GameRules(size, 1));
+        assertTrue(fleet.addShip(new Frigate(Compass.EAST, new Position(150, 120))));
+        Game game = new Game(fleet);
+        DensityAttacker attacker = new DensityAttacker(new GameRules(size, 1), List.of("fragata"), new SplittableRandom(3));
+
+        assertEquals(IGame.SHOT_HIT, game.fire(150, 122));
+        attacker.update(150, 122, IGame.SHOT_HIT, null);
+
+        assertTrue(play(attacker, game, 8) <= 8);
+        assertEquals(0, game.getRemainingShips());
+    }
+
+    @Test
+    @DisplayName("Em tabuleiros grandes escolhe células desconhecidas longe dos tiros falhados")
+    void largeBoardHunting() {
+        int size = 300;
+        DensityAttacker attacker = new DensityAttacker(new GameRules(size, 1), List.of("barca", "nau"), new SplittableRandom(5));
+        for (int n = 0; n < 100; n++) {
+            long shot = attacker.nextShot();
+            int row = Coordinate.rowOf(shot);
+            int column = Coordinate.columnOf(shot);
+            assertTrue(row >= 0 && row < size && column >= 0 && column < size);
+            attacker.update(row, column, IGame.SHOT_MISS, null);
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new DensityAttacker(GameRules.STANDARD, List.of("submarino"), new SplittableRandom(1)));
+    }
+}
@@ -0,0 +1,69 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do FleetGenerator")
+class FleetGeneratorTest {
+
+    private static String describe(IFleet fleet) {
+        return fleet.getShips().stream()
+                .map(s -> s.getCategory() + " " + s.getBearing() + " " + s.getPosition().getRow() + " " + s.getPosition().getColumn())
+                .collect(Collectors.joining(", "));
+    }
+
+    @Test
+    @DisplayName("Frotas geradas têm a composição padrão e são aceites por uma Fleet vazia")
+    void generatedFleetsAreLegal() {
+        FleetGenerator generator = new FleetGenerator();
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int n = 0; n < 500; n++) {
+            BitboardFleet fleet = generator.generate(random);
+            List<IShip> ships = fleet.getShips();
+            assertEquals(FleetGenerator.STANDARD_COMPOSITION.size(), ships.size());
+            assertEquals(1, fleet.getShipsLike("Galeao").size());
+            assertEquals(1, fleet.getShipsLike("Fragata").size());
+            assertEquals(2, fleet.getShipsLike("Nau").size());
+            assertEquals(3, fleet.getShipsLike("Caravela").size());
+            assertEquals(4, fleet.getShipsLike("Barca").size());
+
+            Fleet reference = new Fleet();
+            for (IShip s : ships)
+                assertTrue(reference.addShip(s), describe(fleet));
+        }
+    }
+
+    @Test
+    @DisplayName("A i-ésima frota de uma semente é sempre a mesma, em série ou em paralelo")
+    void generationIsReproducible() {
+        FleetGenerator generator = new FleetGenerator();
+
+        List<String> parallel = generator.generate(42, 200).stream().map(FleetGeneratorTest::describe).collect(Collectors.toList());
+        List<String> serial = generator.stream(42, 200).map(FleetGeneratorTest::describe).collect(Collectors.toList());
+        List<String> other = generator.stream(43, 200).map(FleetGeneratorTest::describe).collect(Collectors.toList());
+
+        assertEquals(serial, parallel);
+        assertNotEquals(serial, other);
+        assertEquals(200, serial.stream().distinct().count());
+    }
+
+    @Test
+    @DisplayName("Composições e tabuleiros configurados")
+    void configuredRules() {
+        FleetGenerator big = new FleetGenerator(new GameRules(1000, 100), List.of("fragata", "barca"));
+        BitboardFleet fleet = big.generate(new SplittableRandom(1));
+        assertEquals(2, fleet.getShips().size());
+
+        assertThrows(IllegalArgumentException.class, () -> new FleetGenerator(new GameRules(10, 0), List.of("nau", "nau")));
+        assertThrows(IllegalArgumentException.class, () -> new FleetGenerator(GameRules.STANDARD, List.of("submarino")));
+        FleetGenerator crowded = new FleetGenerator(new GameRules(3, 10), List.of("nau", "nau", "nau"));
+        assertThrows(IllegalStateException.class, () -> crowded.generate(new SplittableRandom(1)));
+    }
+}
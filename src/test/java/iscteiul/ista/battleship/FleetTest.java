@@ -120,6 +120,37 @@ class FleetTest {
         assertFalse(floating.contains(barge), "Barca afundada não deve aparecer na lista");
     }
 
+    @Test
+    @DisplayName("countFloatingShips: só muda quando um navio afunda")
+    void countFloatingShips_changesOnlyWhenShipSinks() {
+        assertEquals(0, fleet.countFloatingShips());
+
+        fleet.addShip(frigate);
+        fleet.addShip(barge);
+        assertEquals(2, fleet.countFloatingShips());
+
+        frigate.shoot(frigate.getPositions().get(0));
+        frigate.shoot(frigate.getPositions().get(0));
+        assertEquals(2, fleet.countFloatingShips(), "Fragata atingida mas ainda a flutuar");
+
+        barge.getPositions().get(0).shoot();
+        assertEquals(1, fleet.countFloatingShips(), "Barca afundada deixa de contar");
+
+        for (IPosition p : frigate.getPositions())
+            frigate.shoot(p);
+        assertEquals(0, fleet.countFloatingShips());
+        assertEquals(fleet.getFloatingShips().size(), fleet.countFloatingShips());
+    }
+
+    @Test
+    @DisplayName("countFloatingShips: navio já afundado não é contado ao ser adicionado")
+    void countFloatingShips_ignoresShipsSunkBeforeAdding() {
+        barge.shoot(barge.getPositions().get(0));
+
+        assertTrue(fleet.addShip(barge));
+        assertEquals(0, fleet.countFloatingShips());
+    }
+
     @Test
     @DisplayName("shipAt: lida com frota vazia, posição ocupada e posição vazia")
     void shipAt_coversAllBranches() {
@@ -136,6 +167,34 @@ class FleetTest {
         assertNull(fleet.shipAt(empty));
     }
 
+    @Test
+    @DisplayName("shipAt(row, column): encontra o navio sem precisar de uma Position")
+    void shipAtRowColumn_findsShip() {
+        assertNull(fleet.shipAt(0, 0));
+
+        fleet.addShip(frigate);
+        fleet.addShip(galleon);
+
+        assertSame(frigate, fleet.shipAt(3, 0));
+        assertSame(galleon, fleet.shipAt(7, 4));
+        assertNull(fleet.shipAt(9, 9));
+    }
+
+    @Test
+    @DisplayName("Regras configuradas: tamanho do tabuleiro e limite da frota por instância")
+    void configuredRules_limitBoardAndFleet() {
+        GameRules rules = new GameRules(5, 0);
+        Fleet small = new Fleet(rules);
+
+        assertSame(rules, small.getRules());
+        assertFalse(small.addShip(new Frigate(Compass.SOUTH, new Position(2, 0))), "Não cabe em 5 linhas");
+        assertTrue(small.addShip(new Frigate(Compass.SOUTH, new Position(1, 0))));
+        assertFalse(small.addShip(new Barge(Compass.NORTH, new Position(4, 4))), "Limite da frota atingido");
+
+        assertThrows(IllegalArgumentException.class, () -> new GameRules(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new GameRules(10, -1));
+    }
+
     @Test
     @DisplayName("Métodos de impressão funcionam com e sem navios e validam categoria nula")
     void printingMethods_coverBranches() {
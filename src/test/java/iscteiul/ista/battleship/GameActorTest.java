@@ -0,0 +1,226 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do GameActor")
+class GameActorTest {
+
+    private static final FleetGenerator GENERATOR = new FleetGenerator();
+
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Os comandos correm pela ordem em que foram enviados")
+    void commandsRunInOrder() throws Exception {
+        Fleet fleet = new Fleet();
+        fleet.addShip(new Caravel(Compass.SOUTH, new Position(0, 0)));
+        GameActor actor = new GameActor(fleet, pool, 4);
+
+        CompletableFuture<Integer> miss = actor.fire(5, 5);
+        CompletableFuture<int[]> volley = actor.volley(Coordinate.pack(0, 0), Coordinate.pack(5, 5),
+                Coordinate.pack(1, 0));
+        CompletableFuture<Integer> shots = actor.ask(g -> g.getShots().size());
+        CompletableFuture<GameActor.Summary> over = actor.giveUp();
+
+        assertEquals(IGame.SHOT_MISS, miss.get());
+        assertArrayEquals(new int[]{IGame.SHOT_HIT, IGame.SHOT_REPEATED, IGame.SHOT_SUNK}, volley.get());
+        assertEquals(3, shots.get());
+        assertEquals(new GameActor.Summary(3, 2, 0, 1, 1, 0), over.get());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> actor.fire(1, 1).get());
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertThrows(IllegalArgumentException.class, () -> new GameActor(fleet, pool, 0));
+    }
+
+    @Test
+    @DisplayName("ver e mapa desenham o tabuleiro; erros de um comando chegam ao seu futuro")
+    void printAndFailures() throws Exception {
+        Fleet fleet = new Fleet();
+        fleet.addShip(new Barge(Compass.NORTH, new Position(1, 2)));
+        GameActor actor = new GameActor(fleet, pool);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        actor.ask(g -> {
+            g.setRenderer(new BoardRenderer(10, out, false));
+            return null;
+        });
+
+        actor.printFleet().get();
+        assertEquals('#', out.toString(StandardCharsets.US_ASCII).split("\n")[1].charAt(2));
+
+        CompletableFuture<Object> failed = actor.ask(g -> {
+            throw new IllegalStateException("boom");
+        });
+        assertThrows(ExecutionException.class, failed::get);
+        assertEquals(IGame.SHOT_SUNK, actor.fire(1, 2).get());
+        actor.printStatus().get();
+    }
+
+    @Test
+    @DisplayName("Caixas de correio cheias fazem esperar quem envia")
+    void backpressure() throws Exception {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            GameActor actor = new GameActor(new Fleet(), single, 2);
+            actor.ask(g -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            });
+            actor.fire(0, 0);
+            actor.fire(0, 1);
+
+            Thread sender = new Thread(() -> actor.fire(0, 2));
+            sender.start();
+            sender.join(200);
+            assertTrue(sender.isAlive());
+            assertEquals(2, actor.getPending());
+
+            release.countDown();
+            sender.join(5_000);
+            assertFalse(sender.isAlive());
+            assertEquals(3, (int) actor.ask(g -> g.getShots().size()).get(5, TimeUnit.SECONDS));
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Um executor que recusa a tarefa faz falhar as mensagens, e o ator recupera")
+    void rejectedDrain() throws Exception {
+        AtomicBoolean reject = new AtomicBoolean(true);
+        Executor executor = task -> {
+            if (reject.get())
+                throw new RejectedExecutionException("saturated");
+            pool.execute(task);
+        };
+        GameActor actor = new GameActor(new Fleet(), executor);
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> actor.fire(0, 0).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals(0, actor.getPending());
+
+        reject.set(false);
+        assertEquals(IGame.SHOT_MISS, actor.fire(0, 0).get(5, TimeUnit.SECONDS));
+        assertEquals(1, (int) actor.ask(g -> g.getShots().size()).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("O ator joga numa cópia da frota de quem o criou")
+    void fleetIsCopied() throws Exception {
+        Fleet fleet = new Fleet();
+        fleet.addShip(new Barge(Compass.NORTH, new Position(1, 1)));
+        GameActor actor = new GameActor(fleet, pool);
+
+        fleet.getShips().get(0).shoot(1, 1);
+        assertEquals(IGame.SHOT_SUNK, actor.fire(1, 1).get(5, TimeUnit.SECONDS));
+        assertEquals(1, fleet.getShips().size());
+
+        Fleet other = new Fleet();
+        other.addShip(new Barge(Compass.NORTH, new Position(2, 2)));
+        GameActor second = new GameActor(other, pool);
+        assertEquals(IGame.SHOT_SUNK, second.fire(2, 2).get(5, TimeUnit.SECONDS));
+        assertTrue(other.getShips().get(0).stillFloating());
+    }
+
+    @Test
+    @DisplayName("Milhares de jogos jogados ao mesmo tempo num pool pequeno")
+    void thousandsOfGames() throws Exception {
+        List<GameActor> actors = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++)
+            actors.add(new GameActor(GENERATOR.generate(new SplittableRandom(i)), pool, 16));
+
+        List<CompletableFuture<int[]>> volleys = new ArrayList<>();
+        for (int row = 0; row < 10; row++)
+            for (GameActor actor : actors) {
+                long[] shots = new long[10];
+                for (int column = 0; column < 10; column++)
+                    shots[column] = Coordinate.pack(row, column);
+                volleys.add(actor.volley(shots));
+            }
+        CompletableFuture.allOf(volleys.toArray(CompletableFuture<?>[]::new)).get(60, TimeUnit.SECONDS);
+
+        for (GameActor actor : actors) {
+            GameActor.Summary summary = actor.giveUp().get();
+            assertEquals(0, summary.remaining());
+            assertEquals(100, summary.shots());
+        }
+    }
+
+    @Test
+    @DisplayName("Desistir é atómico: cada tiro conta no resumo ou falha")
+    void giveUpRacesWithSenders() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            GameActor actor = new GameActor(new Fleet(), pool, 8);
+            List<CompletableFuture<Integer>> fired = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> senders = new ArrayList<>();
+            for (int row = 0; row < 4; row++) {
+                int r = row;
+                Thread sender = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int column = 0; column < 10; column++)
+                        fired.add(actor.fire(r, column));
+                });
+                senders.add(sender);
+                sender.start();
+            }
+            start.countDown();
+            GameActor.Summary summary = actor.giveUp().get(5, TimeUnit.SECONDS);
+            for (Thread sender : senders)
+                sender.join(5_000);
+
+            int run = 0;
+            for (CompletableFuture<Integer> shot : fired) {
+                try {
+                    assertEquals(IGame.SHOT_MISS, shot.get(5, TimeUnit.SECONDS));
+                    run++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(IllegalStateException.class, e.getCause());
+                }
+            }
+            assertEquals(40, fired.size());
+            assertEquals(run, summary.shots());
+            assertThrows(ExecutionException.class, () -> actor.giveUp().get());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do GameRegistry")
+class GameRegistryTest {
+
+    private static final FleetGenerator GENERATOR = new FleetGenerator();
+
+    @Test
+    @DisplayName("Cria, encontra, joga e retira jogos pelo id")
+    void lifecycle() {
+        GameRegistry registry = new GameRegistry(3);
+        long a = registry.create(GENERATOR.generate(new SplittableRandom(1)));
+        long b = registry.create(new Fleet());
+
+        assertNotEquals(a, b);
+        assertTrue(a > 0 && b > 0);
+        assertEquals(2, registry.size());
+        assertNotSame(registry.get(a), registry.get(b));
+        assertNull(registry.get(0));
+        assertNull(registry.get(b + 1));
+
+        assertEquals(IGame.SHOT_MISS, registry.fire(b, 0, 0));
+        assertEquals(IGame.SHOT_REPEATED, registry.fire(b, 0, 0));
+        assertEquals(1, (int) registry.query(b, g -> g.getShots().size()));
+
+        Game retired = registry.retire(b);
+        assertNotNull(retired);
+        assertNull(registry.retire(b));
+        assertNull(registry.get(b));
+        assertEquals(1, registry.size());
+        assertThrows(IllegalArgumentException.class, () -> registry.fire(b, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new GameRegistry(0));
+    }
+
+    @Test
+    @DisplayName("Muitos jogos criados e retirados continuam a ser encontrados")
+    void manyGames() {
+        GameRegistry registry = new GameRegistry(4);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++)
+            ids.add(registry.create(new Fleet()));
+        for (int i = 0; i < ids.size(); i += 2)
+            assertNotNull(registry.retire(ids.get(i)));
+        for (int i = 0; i < 1_000; i++)
+            ids.add(registry.create(new Fleet()));
+
+        assertEquals(3_500, registry.size());
+        for (int i = 0; i < ids.size(); i++)
+            assertEquals(i % 2 == 1 || i >= 5_000, registry.get(ids.get(i)) != null, "game " + i);
+
+        for (long id : ids)
+            registry.retire(id);
+        assertEquals(0, registry.size());
+        assertTrue(registry.getFootprint() < 4 * 1024, "" + registry.getFootprint());
+    }
+
+    @Test
+    @DisplayName("A memória estimada de um jogo cresce com os tiros e é somada no total")
+    void footprint() {
+        GameRegistry registry = new GameRegistry(1);
+        long empty = registry.getFootprint();
+        long id = registry.create(GENERATOR.generate(new SplittableRandom(2)));
+
+        long before = registry.getFootprint(id);
+        assertTrue(before > 1_000 && before < 4_000, "" + before);
+        for (int row = 0; row < 10; row++)
+            for (int column = 0; column < 10; column++)
+                registry.fire(id, row, column);
+        long after = registry.getFootprint(id);
+        assertTrue(after >= before + 100 * Long.BYTES - 16 * Long.BYTES, before + " / " + after);
+        assertEquals(empty + after, registry.getFootprint());
+
+        for (int i = 0; i < 10_000; i++) {
+            registry.fire(id, -1, i);
+            registry.fire(id, 0, 0);
+        }
+        assertEquals(after, registry.getFootprint(id));
+        assertEquals(20_000, (int) registry.query(id, g -> g.getInvalidShots() + g.getRepeatedShots()));
+        assertFalse(registry.query(id, Game::undo));
+    }
+
+    @Test
+    @DisplayName("O jogo usa uma cópia da frota que lhe foi dada")
+    void fleetIsCopied() {
+        GameRegistry registry = new GameRegistry(1);
+        Fleet fleet = new Fleet();
+        fleet.addShip(new Barge(Compass.NORTH, new Position(1, 1)));
+        long id = registry.create(fleet);
+
+        fleet.getShips().get(0).shoot(1, 1);
+        assertEquals(1, (int) registry.query(id, Game::getRemainingShips));
+        assertEquals(IGame.SHOT_SUNK, registry.fire(id, 1, 1));
+        assertTrue(fleet.getShips().get(0).getPositions().get(0).isHit());
+        assertEquals(1, fleet.getShips().size());
+        assertEquals(0, (int) registry.query(id, Game::getRemainingShips));
+    }
+
+    @Test
+    @DisplayName("Tiros concorrentes em jogos diferentes e no mesmo jogo são todos contados")
+    void concurrentFire() throws InterruptedException {
+        GameRegistry registry = new GameRegistry();
+        long shared = registry.create(GENERATOR.generate(new SplittableRandom(3)));
+        AtomicInteger sunk = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long seed = t;
+            threads.add(new Thread(() -> {
+                long own = registry.create(GENERATOR.generate(new SplittableRandom(seed)));
+                for (int row = 0; row < 10; row++)
+                    for (int column = 0; column < 10; column++) {
+                        registry.fire(own, row, column);
+                        if (registry.fire(shared, row, column) == IGame.SHOT_SUNK)
+                            sunk.incrementAndGet();
+                    }
+                assertEquals(0, (int) registry.query(own, Game::getRemainingShips));
+                registry.retire(own);
+            }));
+        }
+        for (Thread thread : threads)
+            thread.start();
+        for (Thread thread : threads)
+            thread.join();
+
+        Game game = registry.get(shared);
+        assertEquals(11, sunk.get());
+        assertEquals(100, game.getShots().size());
+        assertEquals(300, game.getRepeatedShots());
+        assertEquals(1, registry.size());
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -114,6 +116,34 @@ public class GameTest {
             assertEquals(1, game.getShots().size());
         }
 
+        @Test
+        @DisplayName("Shot exactly at BOARD_SIZE is outside the board and counted as invalid")
+        void invalidShotAtBoardSize() {
+            assertNull(game.fire(new Position(Fleet.BOARD_SIZE, 0)));
+            assertNull(game.fire(new Position(0, Fleet.BOARD_SIZE)));
+
+            assertEquals(2, game.getInvalidShots());
+            assertTrue(game.getShots().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Repeated shots are detected over the whole board and history keeps firing order")
+        void repeatedShotsOverWholeBoard() {
+            for (int r = Fleet.BOARD_SIZE - 1; r >= 0; r--)
+                for (int c = 0; c < Fleet.BOARD_SIZE; c++)
+                    game.fire(new Position(r, c));
+
+            for (int r = 0; r < Fleet.BOARD_SIZE; r++)
+                for (int c = 0; c < Fleet.BOARD_SIZE; c++)
+                    game.fire(new Position(r, c));
+
+            List<IPosition> shots = game.getShots();
+            assertEquals(Fleet.BOARD_SIZE * Fleet.BOARD_SIZE, shots.size());
+            assertEquals(Fleet.BOARD_SIZE * Fleet.BOARD_SIZE, game.getRepeatedShots());
+            assertEquals(new Position(Fleet.BOARD_SIZE - 1, 0), shots.get(0));
+            assertEquals(new Position(0, Fleet.BOARD_SIZE - 1), shots.get(shots.size() - 1));
+        }
+
         @Test
         @DisplayName("Hit on a ship increases hits but does not sink the ship")
         void hitShipButNotSunk() {
@@ -145,6 +175,280 @@ public class GameTest {
         }
     }
 
+    @Nested
+    @DisplayName("fire(row, column) primitive path")
+    class PrimitiveFireTests {
+
+        @Test
+        @DisplayName("Each outcome is reported with its result code")
+        void resultCodes() {
+            IShip caravel = new Caravel(Compass.SOUTH, new Position(0, 0));
+            assertTrue(fleet.addShip(caravel));
+
+            assertEquals(IGame.SHOT_INVALID, game.fire(-1, 0));
+            assertEquals(IGame.SHOT_MISS, game.fire(5, 5));
+            assertEquals(IGame.SHOT_REPEATED, game.fire(5, 5));
+            assertEquals(IGame.SHOT_HIT, game.fire(0, 0));
+            assertNull(game.getLastSunkShip());
+            assertEquals(IGame.SHOT_SUNK, game.fire(1, 0));
+            assertSame(caravel, game.getLastSunkShip());
+
+            assertEquals(1, game.getInvalidShots());
+            assertEquals(1, game.getRepeatedShots());
+            assertEquals(2, game.getHits());
+            assertEquals(1, game.getSunkShips());
+            assertEquals(0, game.getRemainingShips());
+        }
+
+        @Test
+        @DisplayName("Primitive and position-based shots share the same history")
+        void sharedHistory() {
+            game.fire(3, 4);
+            game.fire(new Position(7, 2));
+
+            assertEquals(IGame.SHOT_REPEATED, game.fire(7, 2));
+            assertNull(game.fire(new Position(3, 4)));
+            assertEquals(2, game.getRepeatedShots());
+            assertEquals(List.of(new Position(3, 4), new Position(7, 2)), game.getShots());
+        }
+    }
+
+    @Nested
+    @DisplayName("Configured rules and large boards")
+    class LargeBoardTests {
+
+        @Test
+        @DisplayName("A 100,000 x 100,000 game only stores the cells that are used")
+        void hugeBoardGame() {
+            int size = 100_000;
+            BitboardFleet big = new BitboardFleet(new GameRules(size, 2_000));
+            assertTrue(big.addShip(new Frigate(Compass.EAST, new Position(size - 1, size - 4))));
+            assertTrue(big.addShip(new Barge(Compass.NORTH, new Position(0, 0))));
+            assertFalse(big.addShip(new Barge(Compass.NORTH, new Position(size, 0))));
+
+            Game bigGame = new Game(big);
+            assertEquals(IGame.SHOT_SUNK, bigGame.fire(0, 0));
+            assertEquals(IGame.SHOT_MISS, bigGame.fire(size / 2, size / 2));
+            for (int c = size - 4; c < size; c++)
+                bigGame.fire(size - 1, c);
+            assertEquals(IGame.SHOT_INVALID, bigGame.fire(size, 0));
+            assertEquals(IGame.SHOT_REPEATED, bigGame.fire(size / 2, size / 2));
+
+            assertEquals(2, bigGame.getSunkShips());
+            assertEquals(0, bigGame.getRemainingShips());
+            assertEquals(new Position(size - 1, size - 1), bigGame.getShots().get(5));
+        }
+
+        @Test
+        @DisplayName("A game takes its board size from the fleet rules")
+        void smallConfiguredBoard() {
+            Game small = new Game(new Fleet(new GameRules(4, 2)));
+
+            assertEquals(IGame.SHOT_MISS, small.fire(3, 3));
+            assertEquals(IGame.SHOT_INVALID, small.fire(4, 0));
+            assertDoesNotThrow(() -> small.printValidShots());
+        }
+    }
+
+    @Nested
+    @DisplayName("fork() copies")
+    class ForkTests {
+
+        @Test
+        @DisplayName("A fork starts with the same state and then evolves independently")
+        void forkIsIndependent() {
+            BitboardFleet bitboard = new BitboardFleet();
+            bitboard.addShip(new Caravel(Compass.SOUTH, new Position(0, 0)));
+            bitboard.addShip(new Barge(Compass.NORTH, new Position(5, 5)));
+            Game original = new Game(bitboard);
+            original.fire(5, 5);
+            original.fire(0, 0);
+            original.fire(-1, 0);
+
+            Game fork = original.fork();
+            assertEquals(original.getShots(), fork.getShots());
+            assertEquals(1, fork.getSunkShips());
+            assertEquals(1, fork.getInvalidShots());
+            assertEquals(Compass.NORTH, fork.getLastSunkShip().getBearing());
+            assertNotSame(original.getLastSunkShip(), fork.getLastSunkShip());
+
+            assertEquals(IGame.SHOT_SUNK, fork.fire(1, 0));
+            assertEquals(IGame.SHOT_MISS, original.fire(9, 9));
+            assertEquals(IGame.SHOT_MISS, fork.fire(9, 8));
+
+            assertEquals(0, fork.getRemainingShips());
+            assertEquals(1, original.getRemainingShips());
+            assertEquals(3, original.getShots().size());
+            assertEquals(new Position(9, 9), original.getShots().get(2));
+            assertEquals(new Position(9, 8), fork.getShots().get(3));
+            assertEquals(IGame.SHOT_MISS, original.fire(9, 8));
+            assertEquals(IGame.SHOT_SUNK, original.fire(1, 0));
+        }
+
+        @Test
+        @DisplayName("Fleet copies share nothing visible with the original")
+        void fleetCopies() {
+            BitboardFleet bitboard = new BitboardFleet();
+            assertTrue(bitboard.addShip(new Frigate(Compass.EAST, new Position(0, 0))));
+
+            BitboardFleet copy = bitboard.copy();
+            assertTrue(copy.addShip(new Barge(Compass.NORTH, new Position(5, 5))));
+            assertTrue(bitboard.addShip(new Barge(Compass.NORTH, new Position(5, 6))));
+
+            assertTrue(copy.isForbidden(5, 6));
+            assertFalse(bitboard.isForbidden(5, 4));
+            assertEquals(new Position(5, 5), copy.shipAt(5, 5).getPosition());
+            assertEquals(new Position(5, 6), bitboard.shipAt(5, 6).getPosition());
+            assertNull(copy.shipAt(5, 6));
+
+            Fleet plain = new Fleet();
+            plain.addShip(new Barge(Compass.NORTH, new Position(0, 0)));
+            Fleet plainCopy = plain.copy();
+            plainCopy.shipAt(0, 0).shoot(0, 0);
+            assertEquals(0, plainCopy.countFloatingShips());
+            assertEquals(1, plain.countFloatingShips());
+        }
+    }
+
+    @Nested
+    @DisplayName("undo() and redo() journal")
+    class JournalTests {
+
+        private static final int[][] MOVES = {{5, 5}, {0, 0}, {-1, 0}, {0, 0}, {9, 9}, {1, 0}, {2, 0}, {5, 5}, {10, 3}};
+
+        private String state(Game g) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(g.getShots()).append(' ').append(g.getInvalidShots()).append(' ')
+                    .append(g.getRepeatedShots()).append(' ').append(g.getHits()).append(' ')
+                    .append(g.getSunkShips()).append(' ').append(g.getRemainingShips()).append(' ')
+                    .append(g.getLastSunkShip() == null ? null : g.getLastSunkShip().getPosition());
+            return sb.toString();
+        }
+
+        private Game newGame() {
+            return newGame(true);
+        }
+
+        private Game newGame(boolean journaled) {
+            BitboardFleet bitboard = new BitboardFleet();
+            bitboard.addShip(new Caravel(Compass.SOUTH, new Position(0, 0)));
+            bitboard.addShip(new Barge(Compass.NORTH, new Position(5, 5)));
+            bitboard.addShip(new Barge(Compass.NORTH, new Position(9, 9)));
+            return new Game(bitboard, journaled);
+        }
+
+        @Test
+        @DisplayName("Undoing every shot goes back through every state, and redo replays them")
+        void undoAndRedoEveryShot() {
+            Game g = newGame();
+            String[] states = new String[MOVES.length + 1];
+            states[0] = state(g);
+            for (int i = 0; i < MOVES.length; i++) {
+                g.fire(MOVES[i][0], MOVES[i][1]);
+                states[i + 1] = state(g);
+            }
+            assertEquals(0, g.getRemainingShips());
+
+            for (int i = MOVES.length - 1; i >= 0; i--) {
+                assertTrue(g.undo());
+                assertEquals(states[i], state(g));
+            }
+            assertFalse(g.undo());
+            assertEquals(3, g.getRemainingShips());
+            assertTrue(g.getShots().isEmpty());
+
+            for (int i = 1; i <= MOVES.length; i++) {
+                assertTrue(g.redo());
+                assertEquals(states[i], state(g));
+            }
+            assertFalse(g.redo());
+        }
+
+        @Test
+        @DisplayName("Undone shots can be fired again and a new shot discards the redo history")
+        void fireAfterUndo() {
+            Game g = newGame();
+            assertEquals(IGame.SHOT_HIT, g.fire(0, 0));
+            assertEquals(IGame.SHOT_SUNK, g.fire(1, 0));
+            assertTrue(g.undo());
+            assertTrue(g.undo());
+            assertEquals(IGame.SHOT_MISS, g.fire(4, 4));
+            assertFalse(g.redo());
+
+            assertTrue(g.undo());
+            assertEquals(IGame.SHOT_HIT, g.fire(0, 0));
+            assertEquals(IGame.SHOT_SUNK, g.fire(1, 0));
+            assertEquals(IGame.SHOT_MISS, g.fire(2, 0));
+            assertEquals(2, g.getRemainingShips());
+        }
+
+        @Test
+        @DisplayName("Undo in a fork leaves the original untouched")
+        void undoInFork() {
+            Game g = newGame();
+            g.fire(5, 5);
+            g.fire(0, 0);
+            Game fork = g.fork();
+            assertFalse(fork.undo());
+
+            fork.fire(1, 0);
+            fork.fire(2, 0);
+            assertEquals(1, fork.getRemainingShips());
+            assertTrue(fork.undo());
+            assertTrue(fork.undo());
+            assertEquals(new Position(5, 5), fork.getLastSunkShip().getPosition());
+            assertEquals(2, fork.getRemainingShips());
+
+            assertTrue(g.undo());
+            assertTrue(g.undo());
+            assertEquals(3, g.getRemainingShips());
+            assertEquals(2, fork.getShots().size());
+            assertEquals(IGame.SHOT_REPEATED, fork.fire(0, 0));
+        }
+
+        @Test
+        @DisplayName("A game without a journal plays the same but cannot undo")
+        void withoutJournal() {
+            Game journaled = newGame();
+            Game g = newGame(false);
+            for (int[] move : MOVES)
+                assertEquals(journaled.fire(move[0], move[1]), g.fire(move[0], move[1]));
+            assertEquals(state(journaled), state(g));
+            assertEquals(journaled.getStateHash(), g.getStateHash());
+
+            assertFalse(g.undo());
+            assertFalse(g.redo());
+            assertFalse(g.fork().undo());
+            assertEquals(state(journaled), state(g));
+        }
+
+        @Test
+        @DisplayName("Undo takes hits back without looking their ships up in the fleet")
+        void undoDoesNotLookShipsUp() {
+            int[] lookups = new int[1];
+            Fleet fleet = new Fleet() {
+                @Override
+                public IShip shipAt(int row, int column) {
+                    lookups[0]++;
+                    return super.shipAt(row, column);
+                }
+            };
+            fleet.addShip(new Caravel(Compass.SOUTH, new Position(0, 0)));
+            fleet.addShip(new Barge(Compass.NORTH, new Position(5, 5)));
+            Game g = new Game(fleet);
+            g.fire(0, 0);
+            g.fire(5, 5);
+            g.fire(1, 0);
+
+            lookups[0] = 0;
+            while (g.undo())
+                ;
+            assertEquals(0, lookups[0]);
+            assertEquals(2, g.getRemainingShips());
+            assertEquals(0, g.getHits());
+        }
+    }
+
     @Nested
     @DisplayName("Statistics and board printing")
     class StatsAndPrintingTests {
@@ -174,5 +478,19 @@ public class GameTest {
             game.printValidShots();
             game.printFleet();
         }
+
+        @Test
+        @DisplayName("print methods draw shots and ships through the game renderer")
+        void printThroughRenderer() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Game small = new Game(new Fleet(new GameRules(3, 1)));
+            small.setRenderer(new BoardRenderer(3, out, false));
+            small.fire(1, 2);
+            small.fire(0, 0);
+
+            small.printValidShots();
+
+            assertEquals("X..\n..X\n...\n", out.toString(StandardCharsets.US_ASCII));
+        }
     }
 }
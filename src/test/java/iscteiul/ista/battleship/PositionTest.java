@@ -2,6 +2,9 @@ package iscteiul.ista.battleship;
 
 import org.junit.jupiter.api.*;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Testes unitários da classe Position")
@@ -120,6 +123,56 @@ class PositionTest {
         }
     }
 
+    // ---------------- Coordinate: valor imutável e hash estável ----------------
+    @Nested
+    @DisplayName("Coordenadas e hashing")
+    class Coordinates {
+
+        @Test
+        @DisplayName("hashCode não muda depois de shoot ou occupy")
+        void hashCodeStableAfterStateChanges() {
+            int before = pos1.hashCode();
+            pos1.shoot();
+            pos1.occupy();
+            assertEquals(before, pos1.hashCode());
+            assertEquals(new Position(2, 3).hashCode(), pos1.hashCode());
+        }
+
+        @Test
+        @DisplayName("Posições atingidas continuam a ser encontradas num HashSet")
+        void positionsWorkAsHashKeys() {
+            Set<IPosition> set = new HashSet<>();
+            set.add(pos1);
+            pos1.shoot();
+
+            assertTrue(set.contains(pos1));
+            assertTrue(set.contains(new Position(2, 3)));
+            assertFalse(set.contains(pos2));
+        }
+
+        @Test
+        @DisplayName("getCoordinate devolve um valor com a mesma linha e coluna")
+        void coordinateOfPosition() {
+            Coordinate c = pos1.getCoordinate();
+            assertEquals(new Coordinate(2, 3), c);
+            assertEquals(c.hashCode(), pos1.hashCode());
+            assertEquals(pos1, new Position(c));
+        }
+
+        @Test
+        @DisplayName("pack/unpack preservam linha e coluna e ordenam por linha")
+        void packRoundTrip() {
+            int[][] cases = {{0, 0}, {2, 3}, {99_999, 99_999}, {-1, -5}, {7, Integer.MAX_VALUE}};
+            for (int[] rc : cases) {
+                long packed = Coordinate.pack(rc[0], rc[1]);
+                assertEquals(rc[0], Coordinate.rowOf(packed));
+                assertEquals(rc[1], Coordinate.columnOf(packed));
+                assertEquals(new Coordinate(rc[0], rc[1]), Coordinate.unpack(packed));
+            }
+            assertTrue(Coordinate.pack(1, 0) > Coordinate.pack(0, 99_999));
+        }
+    }
+
     // ---------------- isAdjacentTo：所有 true / false 情况 ----------------
     @Nested
     @DisplayName("Relações de adjacência")
@@ -0,0 +1,116 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes unitários da classe ShipShape")
+class ShipShapeTest {
+
+    private static final String[] CATEGORIES = {"Barca", "Caravela", "Nau", "Fragata", "Galeao"};
+    private static final Compass[] BEARINGS = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+
+    @Test
+    @DisplayName("of: tamanho de cada forma corresponde ao tamanho do navio")
+    void shapeSizes() {
+        int[] sizes = {1, 2, 3, 4, 5};
+        for (int k = 0; k < CATEGORIES.length; k++)
+            for (Compass bearing : BEARINGS)
+                assertEquals(sizes[k], ShipShape.of(CATEGORIES[k], bearing).getSize());
+    }
+
+    @Test
+    @DisplayName("of: devolve null para categorias desconhecidas e para bearing UNKNOWN (exceto barca)")
+    void unknownShapes() {
+        assertNull(ShipShape.of("Submarino", Compass.NORTH));
+        assertNotNull(ShipShape.of("Barca", Compass.UNKNOWN));
+        assertNull(ShipShape.of("Caravela", Compass.UNKNOWN));
+        assertNull(ShipShape.of("Galeao", Compass.UNKNOWN));
+    }
+
+    @Test
+    @DisplayName("of: devolve sempre a mesma instância (tabela pré-calculada)")
+    void shapesAreShared() {
+        assertSame(ShipShape.of("Galeao", Compass.EAST), ShipShape.of("Galeao", Compass.EAST));
+    }
+
+    @Test
+    @DisplayName("Extremos da forma do galeão a sul e a este")
+    void galleonExtents() {
+        ShipShape south = ShipShape.of("Galeao", Compass.SOUTH);
+        assertAll(
+                () -> assertEquals(0, south.getTop()),
+                () -> assertEquals(2, south.getBottom()),
+                () -> assertEquals(-1, south.getLeft()),
+                () -> assertEquals(1, south.getRight())
+        );
+
+        ShipShape east = ShipShape.of("Galeao", Compass.EAST);
+        assertEquals(-2, east.getLeft());
+        assertEquals(0, east.getRight());
+    }
+
+    @Test
+    @DisplayName("Halo contém exatamente as células vizinhas que não pertencem ao navio")
+    void haloMatchesAdjacency() {
+        for (String category : CATEGORIES)
+            for (Compass bearing : BEARINGS) {
+                ShipShape shape = ShipShape.of(category, bearing);
+                int expected = 0;
+                for (int r = -5; r <= 5; r++)
+                    for (int c = -5; c <= 5; c++)
+                        if (!inShape(shape, r, c) && touches(shape, r, c))
+                            expected++;
+
+                assertEquals(expected, shape.getHaloSize(), category + " " + bearing);
+                for (int i = 0; i < shape.getHaloSize(); i++) {
+                    int r = shape.getHaloRowOffset(i);
+                    int c = shape.getHaloColumnOffset(i);
+                    assertFalse(inShape(shape, r, c));
+                    assertTrue(touches(shape, r, c));
+                }
+            }
+
+        assertEquals(8, ShipShape.of("Barca", Compass.NORTH).getHaloSize());
+    }
+
+    @Test
+    @DisplayName("fits: verifica os limites do tabuleiro")
+    void fitsBoard() {
+        ShipShape frigate = ShipShape.of("Fragata", Compass.SOUTH);
+        assertTrue(frigate.fits(6, 0, 10));
+        assertFalse(frigate.fits(7, 0, 10));
+        assertFalse(frigate.fits(-1, 0, 10));
+
+        ShipShape galleon = ShipShape.of("Galeao", Compass.EAST);
+        assertFalse(galleon.fits(0, 1, 10));
+        assertTrue(galleon.fits(0, 2, 10));
+    }
+
+    @Test
+    @DisplayName("Navios construídos usam as posições da forma")
+    void shipsUseShapes() {
+        Ship galleon = new Galleon(Compass.WEST, new Position(4, 4));
+        ShipShape shape = ShipShape.of("Galeao", Compass.WEST);
+
+        assertSame(shape, galleon.getShape());
+        for (int i = 0; i < shape.getSize(); i++)
+            assertEquals(new Position(4 + shape.getRowOffset(i), 4 + shape.getColumnOffset(i)),
+                    galleon.getPositions().get(i));
+    }
+
+    private static boolean inShape(ShipShape shape, int r, int c) {
+        for (int i = 0; i < shape.getSize(); i++)
+            if (shape.getRowOffset(i) == r && shape.getColumnOffset(i) == c)
+                return true;
+        return false;
+    }
+
+    private static boolean touches(ShipShape shape, int r, int c) {
+        for (int i = 0; i < shape.getSize(); i++)
+            if (Math.abs(shape.getRowOffset(i) - r) <= 1 && Math.abs(shape.getColumnOffset(i) - c) <= 1)
+                return true;
+        return false;
+    }
+}
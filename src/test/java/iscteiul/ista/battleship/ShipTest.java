@@ -134,6 +134,33 @@ class ShipTest {
         );
     }
 
+    @Test
+    @DisplayName("getBoundingBox é calculado uma vez e devolve os quatro limites")
+    void testBoundingBoxCached() {
+        Ship galeao = new Galleon(Compass.SOUTH, new Position(2, 5));
+        BoundingBox box = galeao.getBoundingBox();
+
+        assertSame(box, galeao.getBoundingBox());
+        assertAll(
+                () -> assertEquals(2, box.getTop()),
+                () -> assertEquals(4, box.getBottom()),
+                () -> assertEquals(4, box.getLeft()),
+                () -> assertEquals(6, box.getRight()),
+                () -> assertEquals(box.getTop(), galeao.getTopMostPos()),
+                () -> assertEquals(box.getRight(), galeao.getRightMostPos())
+        );
+    }
+
+    @Test
+    @DisplayName("BoundingBox.isInside verifica os quatro lados do tabuleiro")
+    void testBoundingBoxInside() {
+        assertTrue(new BoundingBox(0, 9, 0, 9).isInside(10));
+        assertFalse(new BoundingBox(-1, 2, 0, 0).isInside(10));
+        assertFalse(new BoundingBox(8, 10, 0, 0).isInside(10));
+        assertFalse(new BoundingBox(0, 0, -1, 0).isInside(10));
+        assertFalse(new BoundingBox(0, 0, 9, 10).isInside(10));
+    }
+
     @Test
     @DisplayName("occupies devolve true quando posição pertence ao navio")
     void testOccupiesTrue() {
@@ -245,6 +272,47 @@ class ShipTest {
         assertThrows(AssertionError.class, () -> barca.shoot(null));
     }
 
+    @Test
+    @DisplayName("Posições são vistas sobre a máscara de tiros do navio")
+    void testPositionsAreViewsOverHitMask() {
+        Ship nau = new Carrack(Compass.EAST, new Position(3, 3));
+
+        nau.shoot(3, 4);
+        assertTrue(nau.getPositions().get(1).isHit(), "Tiro no navio aparece na posição");
+        assertFalse(nau.getPositions().get(0).isHit());
+
+        nau.getPositions().get(0).shoot();
+        nau.getPositions().get(2).shoot();
+        assertFalse(nau.stillFloating(), "Tiros nas posições afundam o navio");
+        assertFalse(nau.getPositions().get(2).isOccupied(), "Como as Position originais, começam desocupadas");
+        nau.getPositions().get(2).occupy();
+        assertTrue(nau.getPositions().get(2).isOccupied());
+        assertFalse(nau.getPositions().get(1).isOccupied());
+        assertTrue(nau.copy().getPositions().get(2).isOccupied());
+    }
+
+    @Test
+    @DisplayName("Navios construídos a partir de uma forma não aceitam novas posições")
+    void testShapeShipPositionsCannotGrow() {
+        Ship nau = new Carrack(Compass.EAST, new Position(3, 3));
+        assertThrows(UnsupportedOperationException.class, () -> nau.getPositions().add(new Position(0, 0)));
+        assertEquals(3, nau.getPositions().size());
+    }
+
+    @Test
+    @DisplayName("occupies(row, column) e igualdade/hash das posições do navio")
+    void testOccupiesRowColumnAndCellEquality() {
+        Ship nau = new Carrack(Compass.SOUTH, new Position(1, 7));
+
+        assertTrue(nau.occupies(3, 7));
+        assertFalse(nau.occupies(4, 7));
+
+        IPosition cell = nau.getPositions().get(2);
+        assertEquals(new Position(3, 7), cell);
+        assertEquals(new Position(3, 7).hashCode(), cell.hashCode());
+        assertEquals("Linha = 3 Coluna = 7", cell.toString());
+    }
+
     @Test
     @DisplayName("toString inclui categoria, bearing e posição")
     void testToString() {
@@ -258,4 +326,41 @@ class ShipTest {
         );
     }
 
+    @Test
+    @DisplayName("copy: a cópia tem os mesmos tiros e é independente do original")
+    void testCopyIsIndependent() {
+        Ship nau = new Carrack(Compass.EAST, new Position(2, 2));
+        nau.shoot(2, 2);
+
+        Ship copy = nau.copy();
+        copy.shoot(2, 3);
+        copy.shoot(2, 4);
+
+        assertNotSame(nau, copy);
+        assertEquals(nau.getCategory(), copy.getCategory());
+        assertEquals(nau.getPositions(), copy.getPositions());
+        assertTrue(copy.getPositions().get(0).isHit());
+        assertFalse(copy.stillFloating());
+        assertTrue(nau.stillFloating());
+        assertFalse(nau.getPositions().get(1).isHit());
+    }
+
+    @Test
+    @DisplayName("unshoot desfaz um tiro e volta a pôr a flutuar um navio afundado")
+    void testUnshootRefloats() {
+        Fleet fleet = new Fleet();
+        IShip barca = new Barge(Compass.NORTH, new Position(2, 2));
+        fleet.addShip(barca);
+
+        barca.shoot(2, 2);
+        assertEquals(0, fleet.countFloatingShips());
+        barca.unshoot(2, 2);
+        assertTrue(barca.stillFloating());
+        assertFalse(barca.getPositions().get(0).isHit());
+        assertEquals(1, fleet.countFloatingShips());
+
+        barca.unshoot(2, 2);
+        barca.unshoot(5, 5);
+        assertEquals(1, fleet.countFloatingShips(), "Desfazer um tiro que não acertou não muda nada");
+    }
 }
@@ -0,0 +1,165 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do ShotRingBuffer")
+class ShotRingBufferTest {
+
+    private static final int GAMES = 12;
+    private static final int SHOTS = 5_000;
+
+    @Test
+    @DisplayName("Os tiros de cada jogo chegam pela ordem, sempre à mesma thread")
+    void orderPerGame() throws InterruptedException {
+        AtomicIntegerArray lastShot = new AtomicIntegerArray(GAMES);
+        AtomicReferenceArray<Thread> owners = new AtomicReferenceArray<>(GAMES);
+        AtomicInteger handled = new AtomicInteger();
+        AtomicInteger wrong = new AtomicInteger();
+        for (int g = 0; g < GAMES; g++)
+            lastShot.set(g, -1);
+
+        ShotRingBuffer ring = new ShotRingBuffer(64, 3, (gameId, row, column) -> {
+            int g = (int) gameId;
+            owners.compareAndSet(g, null, Thread.currentThread());
+            if (owners.get(g) != Thread.currentThread() || lastShot.get(g) != row - 1)
+                wrong.incrementAndGet();
+            lastShot.set(g, row);
+            handled.incrementAndGet();
+        });
+
+        // each producer feeds its own games, interleaved
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 3; p++) {
+            int first = p;
+            producers.add(new Thread(() -> {
+                for (int shot = 0; shot < SHOTS; shot++)
+                    for (int g = first; g < GAMES; g += 3)
+                        ring.publish(g, shot, 0);
+            }));
+        }
+        for (Thread producer : producers)
+            producer.start();
+        for (Thread producer : producers)
+            producer.join();
+        ring.close();
+
+        assertEquals(GAMES * SHOTS, handled.get());
+        assertEquals(0, wrong.get());
+        for (int g = 0; g < GAMES; g++)
+            assertEquals(SHOTS - 1, lastShot.get(g));
+        assertThrows(IllegalStateException.class, () -> ring.publish(0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Os consumidores disparam nos jogos do registo")
+    void firingAtRegistry() {
+        GameRegistry registry = new GameRegistry(4);
+        FleetGenerator generator = new FleetGenerator();
+        long[] ids = new long[50];
+        for (int i = 0; i < ids.length; i++)
+            ids[i] = registry.create(generator.generate(new SplittableRandom(i)));
+
+        ShotRingBuffer ring = ShotRingBuffer.firingAt(registry, 128, 2);
+        for (int row = 0; row < 10; row++)
+            for (int column = 0; column < 10; column++)
+                for (long id : ids)
+                    ring.publish(id, row, column);
+        ring.publish(ids[0], 0, 0);
+        ring.publish(-5, 0, 0);
+        ring.close();
+
+        assertEquals(1, ring.getFailures());
+        for (long id : ids) {
+            Game game = registry.get(id);
+            assertEquals(0, game.getRemainingShips());
+            assertEquals(100, game.getShots().size());
+        }
+        assertEquals(1, registry.get(ids[0]).getRepeatedShots());
+    }
+
+    @Test
+    @DisplayName("Um handler que lança um Error não pára o consumidor nem bloqueia os produtores")
+    void handlerErrors() {
+        AtomicInteger handled = new AtomicInteger();
+        ShotRingBuffer ring = new ShotRingBuffer(8, 1, (gameId, row, column) -> {
+            if (row % 10 == 0)
+                throw new AssertionError("boom");
+            handled.incrementAndGet();
+        });
+        for (int i = 0; i < 1_000; i++)
+            ring.publish(0, i, 0);
+        ring.close();
+
+        assertEquals(100, ring.getFailures());
+        assertEquals(900, handled.get());
+    }
+
+    @Test
+    @DisplayName("Fechar enquanto se publica: cada tiro aceite é tratado, os outros são recusados")
+    void closeWhilePublishing() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            AtomicInteger handled = new AtomicInteger();
+            AtomicInteger accepted = new AtomicInteger();
+            ShotRingBuffer ring = new ShotRingBuffer(8, 2, (gameId, row, column) -> handled.incrementAndGet());
+
+            List<Thread> producers = new ArrayList<>();
+            for (int p = 0; p < 4; p++) {
+                long gameId = p;
+                producers.add(new Thread(() -> {
+                    try {
+                        for (int shot = 0; ; shot++) {
+                            ring.publish(gameId, shot, 0);
+                            accepted.incrementAndGet();
+                        }
+                    } catch (IllegalStateException e) {
+                        // closed
+                    }
+                }));
+            }
+            for (Thread producer : producers)
+                producer.start();
+            Thread.sleep(2);
+            ring.close();
+            for (Thread producer : producers)
+                producer.join(5_000);
+
+            for (Thread producer : producers)
+                assertFalse(producer.isAlive());
+            assertEquals(accepted.get(), handled.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Capacidade e número de consumidores são validados")
+    void invalidArguments() {
+        ShotRingBuffer.Handler none = (gameId, row, column) -> {
+        };
+        assertThrows(IllegalArgumentException.class, () -> new ShotRingBuffer(100, 1, none));
+        assertThrows(IllegalArgumentException.class, () -> new ShotRingBuffer(1, 1, none));
+        assertThrows(IllegalArgumentException.class, () -> new ShotRingBuffer(64, 0, none));
+    }
+
+    @Test
+    @DisplayName("Fechar com a thread interrompida espera pelos consumidores e mantém a interrupção")
+    void closeWhenInterrupted() {
+        AtomicInteger handled = new AtomicInteger();
+        ShotRingBuffer ring = new ShotRingBuffer(16, 2, (gameId, row, column) -> handled.incrementAndGet());
+        for (int i = 0; i < 100; i++)
+            ring.publish(i, i, 0);
+
+        Thread.currentThread().interrupt();
+        ring.close();
+        assertTrue(Thread.interrupted());
+        assertEquals(100, handled.get());
+    }
+}
@@ -141,4 +141,75 @@ class TasksTest {
         assertEquals(nShots, game.getReceivedShots().size());
     }
 
+    // ---------------------------------------------------------------------
+    // Leitura através do CommandTokenizer
+    // ---------------------------------------------------------------------
+    private static final String FLEET_SCRIPT =
+            "galeao 0 0 n\nfragata 0 5 e\nnau 4 0 s\nnau 2 5 e\ncaravela 4 3 e\ncaravela 6 6 s\n" +
+            "caravela 8 0 e\nbarca 9 9 n\nbarca 4 9 n\nbarca 6 3 n\nbarca 9 4 n\n";
+
+    private CommandTokenizer tokenizer(String text) {
+        return new CommandTokenizer(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Nested
+    @DisplayName("Tarefas lidas com o CommandTokenizer")
+    class TokenizerTests {
+
+        @Test
+        @DisplayName("buildFleet: constrói a mesma frota que a versão com Scanner")
+        void buildFleet_matchesScanner() {
+            Fleet expected = Tasks.buildFleet(new Scanner(FLEET_SCRIPT));
+            Fleet actual = Tasks.buildFleet(tokenizer(FLEET_SCRIPT));
+
+            assertEquals(expected.getShips().size(), actual.getShips().size());
+            for (int i = 0; i < expected.getShips().size(); i++) {
+                IShip e = expected.getShips().get(i);
+                IShip a = actual.getShips().get(i);
+                assertEquals(e.getCategory(), a.getCategory());
+                assertEquals(e.getBearing(), a.getBearing());
+                assertEquals(e.getPosition(), a.getPosition());
+            }
+        }
+
+        @Test
+        @DisplayName("buildFleet: navios desconhecidos e rejeitados são ignorados")
+        void buildFleet_skipsUnknownAndRejectedShips() {
+            Fleet fleet = Tasks.buildFleet(tokenizer("submarino 4 4 n\ngaleao 0 1 e\n" + FLEET_SCRIPT));
+
+            assertEquals(Fleet.FLEET_SIZE + 1, fleet.getShips().size());
+        }
+
+        @Test
+        @DisplayName("firingRound: dispara NUMBER_SHOTS tiros sobre o jogo")
+        void firingRound_firesAllShots() {
+            Fleet fleet = new Fleet();
+            fleet.addShip(new Caravel(Compass.SOUTH, new Position(0, 0)));
+            Game game = new Game(fleet);
+
+            Tasks.firingRound(tokenizer("0 0 1 0 -1 4"), game);
+
+            assertEquals(getNumberShots() - 1, game.getShots().size());
+            assertEquals(1, game.getSunkShips());
+            assertEquals(1, game.getInvalidShots());
+        }
+
+        @Test
+        @DisplayName("taskD: executa um script completo e termina no fim da entrada")
+        void taskD_runsScript() {
+            String script = "estado\nnova\n" + FLEET_SCRIPT +
+                    "rajada 0 0 0 1 0 2\nrajada 0 0 10 10 3 3\nver\nmapa\nestado\nxpto\n";
+
+            assertDoesNotThrow(() -> Tasks.taskD(tokenizer(script)));
+            assertDoesNotThrow(() -> Tasks.taskD(tokenizer(script + "desisto\nrajada 1 1 1 1 1 1\n")));
+        }
+
+        @Test
+        @DisplayName("taskA, taskB e taskC: aceitam os mesmos comandos lidos do tokenizer")
+        void otherTasks_runScripts() {
+            assertDoesNotThrow(() -> Tasks.taskA(tokenizer("barca 1 1 n 1 1 2 2 1 1\nnau 0 0 s 0 0 1 0 3 0\n")));
+            assertDoesNotThrow(() -> Tasks.taskB(tokenizer("nova\n" + FLEET_SCRIPT + "estado\nmapa\ndesisto\n")));
+            assertDoesNotThrow(() -> Tasks.taskC(tokenizer("nova\n" + FLEET_SCRIPT + "estado\nmapa\nxpto\n")));
+        }
+    }
 }
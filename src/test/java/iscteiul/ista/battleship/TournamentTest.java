@@ -0,0 +1,83 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do Tournament e do ShotHistogram")
+class TournamentTest {
+
+    private static final Function<SplittableRandom, IAttacker> RANDOM =
+            random -> new RandomAttacker(GameRules.STANDARD, random);
+
+    @Test
+    @DisplayName("Os resultados não dependem do número de threads")
+    void resultsDoNotDependOnThreads() {
+        ForkJoinPool one = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            ShotHistogram a = new Tournament(new FleetGenerator(), 400, one).play(DensityAttacker::new, 9, 300);
+            ShotHistogram b = new Tournament(new FleetGenerator(), 400, four).play(DensityAttacker::new, 9, 300);
+
+            assertEquals(300, a.getGames());
+            assertEquals(a.toString(), b.toString());
+            for (int shots = 0; shots <= 100; shots++)
+                assertEquals(a.getCount(shots), b.getCount(shots));
+        } finally {
+            one.shutdown();
+            four.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("A estratégia de densidade ganha em menos tiros do que tiros ao acaso")
+    void densityBeatsRandom() {
+        Tournament tournament = new Tournament();
+
+        ShotHistogram random = tournament.play(RANDOM, 1, 300);
+        ShotHistogram density = tournament.play(DensityAttacker::new, 1, 300);
+
+        assertEquals(0, random.getUnfinished());
+        assertTrue(random.getMax() <= 100);
+        assertTrue(density.getMean() + 20 < random.getMean(), density + " / " + random);
+        assertTrue(density.getPercentile(90) < random.getPercentile(50), density + " / " + random);
+    }
+
+    @Test
+    @DisplayName("play: desiste ao fim do número máximo de tiros")
+    void playGivesUp() {
+        Game game = new Game(new FleetGenerator().generate(new SplittableRandom(2)));
+
+        assertEquals(-1, Tournament.play(RANDOM.apply(new SplittableRandom(2)), game, 10));
+        assertEquals(10, game.getShots().size());
+    }
+
+    @Test
+    @DisplayName("ShotHistogram: média, percentis e junção de histogramas")
+    void histogram() {
+        ShotHistogram a = new ShotHistogram();
+        ShotHistogram b = new ShotHistogram();
+        for (int shots = 1; shots <= 50; shots++)
+            a.add(shots);
+        for (int shots = 51; shots <= 100; shots++)
+            b.add(shots);
+        b.add(300);
+        b.add(-1);
+
+        a.merge(b);
+
+        assertEquals(101, a.getGames());
+        assertEquals(1, a.getUnfinished());
+        assertEquals((5050 + 300) / 101.0, a.getMean(), 1e-9);
+        assertEquals(51, a.getPercentile(50));
+        assertEquals(91, a.getPercentile(90));
+        assertEquals(300, a.getPercentile(100));
+        assertEquals(1, a.getCount(300));
+        assertEquals(-1, new ShotHistogram().getPercentile(50));
+    }
+}
@@ -0,0 +1,121 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do TranspositionTable e do hash de Zobrist")
+class TranspositionTableTest {
+
+    @Test
+    @DisplayName("A capacidade é arredondada a uma potência de 2 e é validada")
+    void capacity() {
+        assertEquals(1024, new TranspositionTable(1000).getCapacity());
+        assertEquals(1, new TranspositionTable(1).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(TranspositionTable.MAX_CAPACITY + 1));
+    }
+
+    @Test
+    @DisplayName("get devolve o valor guardado, ou o valor por omissão se foi substituído")
+    void putAndGet() {
+        TranspositionTable table = new TranspositionTable(16);
+        assertEquals(-1, table.get(0, -1));
+        assertEquals(-1, table.get(42, -1));
+
+        table.put(0, 7);
+        table.put(42, 0);
+        assertEquals(7, table.get(0, -1));
+        assertEquals(0, table.get(42, -1));
+
+        table.put(42 + 16, 5);
+        assertEquals(-1, table.get(42, -1));
+        assertEquals(5, table.get(42 + 16, -1));
+
+        table.clear();
+        assertEquals(-1, table.get(0, -1));
+    }
+
+    @Test
+    @DisplayName("Escritas concorrentes nunca devolvem o valor de outro estado")
+    void concurrentPuts() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(64);
+        AtomicInteger wrong = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long seed = t;
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    long hash = random.nextLong(1_000);
+                    long value = table.get(hash, -1);
+                    if (value != -1 && value != hash * 31)
+                        wrong.incrementAndGet();
+                    table.put(hash, hash * 31);
+                }
+            }));
+        }
+        for (Thread thread : threads)
+            thread.start();
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(0, wrong.get());
+    }
+
+    @Test
+    @DisplayName("O hash do jogo não depende da ordem dos tiros e é reposto pelo undo")
+    void gameHashIgnoresOrder() {
+        BitboardFleet fleet = new FleetGenerator().generate(new SplittableRandom(3));
+        Game a = new Game(fleet);
+        Game b = new Game(fleet.copy());
+        assertEquals(a.getStateHash(), b.getStateHash());
+
+        List<long[]> shots = new ArrayList<>();
+        for (int row = 0; row < 10; row++)
+            for (int column = (row % 2); column < 10; column += 2)
+                shots.add(new long[]{row, column});
+        for (long[] shot : shots)
+            a.fire((int) shot[0], (int) shot[1]);
+        for (int i = shots.size() - 1; i >= 0; i--)
+            b.fire((int) shots.get(i)[0], (int) shots.get(i)[1]);
+        b.fire(-1, 3);
+        b.fire(0, 0);
+
+        assertEquals(a.getStateHash(), b.getStateHash());
+        assertNotEquals(0, a.getStateHash());
+
+        long before = a.getStateHash();
+        a.fire(0, 1);
+        assertNotEquals(before, a.getStateHash());
+        assertEquals(a.getStateHash(), a.fork().getStateHash());
+        a.undo();
+        assertEquals(before, a.getStateHash());
+        while (a.undo())
+            ;
+        assertEquals(0, a.getStateHash());
+    }
+
+    @Test
+    @DisplayName("Afundar um navio acrescenta a sua chave à do último impacto")
+    void sinkingChangesTheHash() {
+        Fleet fleet = new Fleet();
+        fleet.addShip(new Barge(Compass.NORTH, new Position(2, 3)));
+        fleet.addShip(new Caravel(Compass.EAST, new Position(6, 6)));
+        Game game = new Game(fleet);
+
+        game.fire(2, 3);
+        assertEquals(Zobrist.key(2, 3, Zobrist.HIT) ^ Zobrist.key(2, 3, Zobrist.SUNK), game.getStateHash());
+        game.fire(6, 6);
+        game.fire(6, 7);
+        assertEquals(Zobrist.key(2, 3, Zobrist.HIT) ^ Zobrist.key(2, 3, Zobrist.SUNK)
+                ^ Zobrist.key(6, 6, Zobrist.HIT) ^ Zobrist.key(6, 7, Zobrist.HIT)
+                ^ Zobrist.key(6, 6, Zobrist.SUNK), game.getStateHash());
+    }
+}